@@ -0,0 +1,88 @@
+package dev.splityosis.sysengine.benchmarks;
+
+import dev.splityosis.sysengine.actions.*;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures running compiled actions against stub players, from a single execution up to a full server fan-out.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActionsExecutionBenchmark {
+
+    @Param({"true", "false"})
+    public boolean metrics;
+
+    private Actions actions;
+    private StubPlayer stubPlayer;
+    private Player player;
+    private List<Player> players;
+    private ReplacementSet replacementSet;
+    private Map<String, String> replacementMap;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        ActionTypeMetrics.setEnabled(metrics);
+
+        actions = new ActionsBuilder()
+                .sendMessage("&aWelcome, %player%!")
+                .sendMessage("&7You have &e%coins% &7coins and are level &e%level%")
+                .ifCondition("%level% >= 10 && %coins% > 100")
+                .sendMessage("&bVeteran bonus applied")
+                .otherwise()
+                .sendMessage("&cReach level 10 for a bonus")
+                .end()
+                .repeat(3)
+                .sendMessage("&8* &7%player%")
+                .end()
+                .build();
+        actions.compile();
+
+        List<StubPlayer> stubPlayers = StubServer.addPlayers(100);
+        stubPlayer = stubPlayers.get(0);
+        player = stubPlayer.getPlayer();
+        players = new ArrayList<>(stubPlayers.size());
+        for (StubPlayer stub : stubPlayers)
+            players.add(stub.getPlayer());
+
+        replacementSet = ReplacementSet.of("%player%", player.getName(), "%coins%", "250", "%level%", "12");
+        replacementMap = new HashMap<>(replacementSet);
+    }
+
+    @TearDown
+    public void tearDown() {
+        // Makes sure the messages were really sent, the stub player counts them
+        if (stubPlayer.getMessages() == 0)
+            throw new IllegalStateException("No messages were sent to the stub player");
+    }
+
+    @Benchmark
+    public ActionsExecution executeWithReplacementSet() {
+        return actions.execute(player, replacementSet);
+    }
+
+    @Benchmark
+    public ActionsExecution executeWithHashMap() {
+        return actions.execute(player, replacementMap);
+    }
+
+    @Benchmark
+    public ActionsExecution executeWithVarargs() {
+        return actions.execute(player, "%player%", player.getName(), "%coins%", "250", "%level%", "12");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public List<ActionsExecution> executeAll() {
+        return actions.executeAll(players, replacementSet);
+    }
+}
@@ -0,0 +1,53 @@
+package dev.splityosis.sysengine.benchmarks;
+
+import dev.splityosis.sysengine.actions.Actions;
+import dev.splityosis.sysengine.actions.ActionsParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing (and compiling) action lists as they come from config.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActionsParserBenchmark {
+
+    // Copies of an 11 line list
+    @Param({"1", "10"})
+    public int copies;
+
+    private List<Object> rawActions;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+
+        List<Object> template = new ArrayList<>();
+        template.add("sendMessage{&aWelcome, %player%!}");
+        template.add("message {&7You have {%coins%} coins}");
+        template.add("sendMessage{%player%}{&dSomeone thinks of you}");
+        template.add("sendTitle{&6Level up}{&eYou are now level %level%}{10}{40}{10}");
+        template.add("if {%level% >= 10 && %coins% > 100}");
+        template.add("sendActionBar{&bVeteran bonus \\{x2\\}}");
+        template.add("end");
+        template.add(Collections.singletonMap("consoleCommand", "{give %player% diamond 1}"));
+        template.add("repeat{3}");
+        template.add("msg &8*");
+        template.add("end");
+
+        rawActions = new ArrayList<>(template.size() * copies);
+        for (int i = 0; i < copies; i++)
+            rawActions.addAll(template);
+    }
+
+    @Benchmark
+    public Actions parseActions() {
+        return ActionsParser.parseActions(rawActions, "benchmark");
+    }
+}
@@ -0,0 +1,62 @@
+package dev.splityosis.sysengine.benchmarks;
+
+import dev.splityosis.sysengine.actions.*;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ActionType#applyPlaceholders}, both on raw strings and on the pre-parsed
+ * templates of a {@link ParameterList}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplyPlaceholdersBenchmark {
+
+    @Param({"&aWelcome to the server!", "&7%player% has &e%coins% &7coins and is level &e%level%", "&7Reward: {reward} for %player%"})
+    public String parameter;
+
+    private ActionType actionType;
+    private Player player;
+    private List<String> rawParameters;
+    private ParameterList parameterList;
+    private ReplacementSet replacementSet;
+    private Map<String, String> replacementMap;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        actionType = ActionTypeRegistry.get().getActionType("sendMessage", 1);
+        player = StubServer.addPlayers(1).get(0).getPlayer();
+        rawParameters = Collections.singletonList(parameter);
+        parameterList = new ParameterList(rawParameters);
+        replacementSet = ReplacementSet.of("%player%", player.getName(), "%coins%", "250", "%level%", "12", "{reward}", "&bDiamond x3");
+        replacementMap = new HashMap<>(replacementSet);
+    }
+
+    @Benchmark
+    public String rawString() {
+        return actionType.applyPlaceholders(player, parameter, replacementSet);
+    }
+
+    @Benchmark
+    public List<String> rawList() {
+        return actionType.applyPlaceholders(player, rawParameters, replacementSet);
+    }
+
+    @Benchmark
+    public List<String> parameterList() {
+        return actionType.applyPlaceholders(player, parameterList, replacementSet);
+    }
+
+    @Benchmark
+    public List<String> parameterListWithHashMap() {
+        return actionType.applyPlaceholders(player, parameterList, replacementMap);
+    }
+}
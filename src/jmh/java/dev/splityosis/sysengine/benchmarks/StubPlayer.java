@@ -0,0 +1,71 @@
+package dev.splityosis.sysengine.benchmarks;
+
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+/**
+ * A {@link Player} stub that counts what it receives instead of sending it anywhere.
+ * Any method that isn't stubbed returns the default value of its return type.
+ */
+public final class StubPlayer {
+
+    private final String name;
+    private final UUID uuid;
+    private final Player player;
+    private long messages = 0;
+    private long characters = 0;
+
+    public StubPlayer(String name) {
+        this.name = name;
+        this.uuid = UUID.nameUUIDFromBytes(name.getBytes());
+        this.player = StubServer.stub(Player.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                case "getDisplayName":
+                case "getPlayerListName":
+                    return this.name;
+                case "getUniqueId":
+                    return uuid;
+                case "isOnline":
+                case "isValid":
+                case "hasPermission":
+                    return true;
+                case "sendMessage":
+                case "sendRawMessage":
+                    receive(args);
+                    return null;
+                default:
+                    return StubServer.defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private void receive(Object[] args) {
+        if (args == null) return;
+        for (Object arg : args) {
+            if (arg instanceof String) {
+                messages++;
+                characters += ((String) arg).length();
+            }
+            else if (arg instanceof String[]) {
+                for (String message : (String[]) arg) {
+                    messages++;
+                    characters += message.length();
+                }
+            }
+        }
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public long getMessages() {
+        return messages;
+    }
+
+    public long getCharacters() {
+        return characters;
+    }
+}
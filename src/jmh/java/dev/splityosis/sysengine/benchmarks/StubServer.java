@@ -0,0 +1,129 @@
+package dev.splityosis.sysengine.benchmarks;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginManager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link Server} stub so that benchmarks can run the actions pipeline without a live server.
+ * <p>
+ * Every call runs as if it was on the main thread, PlaceholderAPI is never enabled and
+ * any method that isn't stubbed returns the default value of its return type.
+ */
+public final class StubServer {
+
+    private static final Logger LOGGER = Logger.getLogger("StubServer");
+    private static final List<Player> onlinePlayers = new ArrayList<>();
+    private static boolean isInstalled = false;
+
+    private StubServer() {
+    }
+
+    /**
+     * Installs the stub as the Bukkit server, if it wasn't installed already.
+     */
+    public static synchronized void install() {
+        if (isInstalled) return;
+
+        // Malformed benchmark input is a bug, but don't let the logs skew the numbers
+        LOGGER.setLevel(Level.SEVERE);
+        PluginManager pluginManager = stub(PluginManager.class, (method, args) -> defaultValue(method.getReturnType()));
+        Server server = stub(Server.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getLogger":
+                    return LOGGER;
+                case "getName":
+                    return "StubServer";
+                case "getVersion":
+                    return "stub (MC: 1.18.2)";
+                case "getBukkitVersion":
+                    return "1.18.2-R0.1-SNAPSHOT";
+                case "isPrimaryThread":
+                    return true;
+                case "getPluginManager":
+                    return pluginManager;
+                case "getOnlinePlayers":
+                    return Collections.unmodifiableList(onlinePlayers);
+                case "getPlayer":
+                case "getPlayerExact":
+                    return args != null && args.length == 1 && args[0] instanceof String ? findPlayer((String) args[0]) : null;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+        Bukkit.setServer(server);
+        isInstalled = true;
+    }
+
+    /**
+     * Creates stub players and adds them to the online players.
+     *
+     * @param amount the amount of players.
+     * @return the created players.
+     */
+    public static synchronized List<StubPlayer> addPlayers(int amount) {
+        List<StubPlayer> players = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            StubPlayer player = new StubPlayer("Player" + (onlinePlayers.size() + 1));
+            players.add(player);
+            onlinePlayers.add(player.getPlayer());
+        }
+        return players;
+    }
+
+    private static Player findPlayer(String name) {
+        for (Player player : onlinePlayers)
+            if (player.getName().equalsIgnoreCase(name))
+                return player;
+        return null;
+    }
+
+    static <T> T stub(Class<T> type, StubHandler handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return self == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(self);
+                    default:
+                        return type.getSimpleName() + "Stub";
+                }
+            }
+            return handler.handle(method, args);
+        });
+        return type.cast(proxy);
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class)
+            return null;
+        if (type == boolean.class)
+            return false;
+        if (type == char.class)
+            return '\0';
+        if (type == long.class)
+            return 0L;
+        if (type == float.class)
+            return 0F;
+        if (type == double.class)
+            return 0D;
+        if (type == byte.class)
+            return (byte) 0;
+        if (type == short.class)
+            return (short) 0;
+        return 0;
+    }
+
+    @FunctionalInterface
+    interface StubHandler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}
@@ -1,12 +1,21 @@
 package dev.splityosis.sysengine;
 
 import dev.splityosis.sysengine.actions.ActionTypeRegistry;
+import dev.splityosis.sysengine.actions.ActionsExecutionTracker;
+import dev.splityosis.sysengine.actions.CommandDispatcher;
 import dev.splityosis.sysengine.commandlib.CommandLib;
 import dev.splityosis.sysengine.commandlib.manager.CommandManager;
+import dev.splityosis.sysengine.common.io.FileSaveQueue;
 import dev.splityosis.sysengine.configlib.ConfigLib;
 import dev.splityosis.sysengine.configlib.manager.ConfigManager;
+import dev.splityosis.sysengine.configlib.manager.DefaultConfigManager;
 import dev.splityosis.sysengine.guilib.GuiLib;
 import dev.splityosis.sysengine.plugin.commands.SYSEngineCommand;
+import dev.splityosis.sysengine.utils.PapiUtil;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
 
@@ -32,7 +41,7 @@ public final class SYSEngine extends JavaPlugin {
 
     @Override
     public void onDisable() {
-
+        shutdown();
     }
 
     /**
@@ -55,9 +64,39 @@ public final class SYSEngine extends JavaPlugin {
         ConfigLib.initialize();
         ActionTypeRegistry.initialize();
         GuiLib.initialize(plugin);
+        PapiUtil.initialize(plugin);
+        ActionsExecutionTracker.initialize(plugin);
+        CommandDispatcher.initialize(plugin);
+        plugin.getServer().getPluginManager().registerEvents(new DisableListener(plugin), plugin);
+    }
+
+    /**
+     * Stops watching config files, then writes every queued config save and waits for them.
+     * You only need to call this if you are shading in the engine, call it at the end of your plugin's onDisable
+     * so saves queued while disabling aren't lost. Saves queued before that are written when the plugin that
+     * initialized the engine starts disabling.
+     */
+    public static void shutdown() {
+        DefaultConfigManager.stopAllWatching();
+        FileSaveQueue.flush();
     }
 
     public static SYSEngine getPlugin() {
         return plugin;
     }
+
+    private static final class DisableListener implements Listener {
+
+        private final JavaPlugin plugin;
+
+        private DisableListener(JavaPlugin plugin) {
+            this.plugin = plugin;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onDisable(PluginDisableEvent event) {
+            if (event.getPlugin() == plugin)
+                shutdown();
+        }
+    }
 }
@@ -0,0 +1,199 @@
+package dev.splityosis.sysengine.actions;
+
+import dev.splityosis.sysengine.function.Condition;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A condition of an {@code if} or {@code chance} block, compiled once when the actions are compiled.
+ * <p>
+ * {@code if} conditions are one or more comparisons joined by {@code &&}, e.g. {@code %level% >= 10 && %kills% > 2}.
+ * Each comparison is parsed with {@link Condition}, so its left side must be a {@code %placeholder%}
+ * and its right side can be any expression, which may use placeholders as well.
+ * Placeholders are resolved from the replacements first, then through PlaceholderAPI.
+ * A placeholder that doesn't resolve to a number makes the condition false.
+ */
+public abstract class ActionCondition {
+
+    /**
+     * Tests this condition.
+     *
+     * @param target       the target of the execution.
+     * @param replacements the replacements of the execution.
+     * @return whether the condition passes.
+     */
+    public abstract boolean test(Object target, Map<String, String> replacements);
+
+    /**
+     * Parses an {@code if} condition.
+     *
+     * @param raw the raw condition, e.g. {@code %level% >= 10 && %kills% > 2}.
+     * @return the compiled condition.
+     * @throws IllegalArgumentException if the condition is malformed.
+     */
+    public static ActionCondition parse(String raw) {
+        if (raw == null || raw.trim().isEmpty())
+            throw new IllegalArgumentException("Condition is empty");
+
+        // Bind every %placeholder% to an expression variable
+        Map<String, String> variablesByPlaceholder = new LinkedHashMap<>();
+        StringBuilder rewritten = new StringBuilder(raw.length());
+        int length = raw.length();
+        int i = 0;
+        while (i < length) {
+            char c = raw.charAt(i);
+            int end = c == '%' ? findPlaceholderEnd(raw, i) : -1;
+            if (end == -1) {
+                rewritten.append(c);
+                i++;
+                continue;
+            }
+
+            String placeholder = raw.substring(i, end + 1);
+            String variable = variablesByPlaceholder.get(placeholder);
+            if (variable == null) {
+                variable = "var" + variablesByPlaceholder.size();
+                variablesByPlaceholder.put(placeholder, variable);
+            }
+            rewritten.append(variable);
+            i = end + 1;
+        }
+
+        Set<String> variables = new HashSet<>(variablesByPlaceholder.values());
+        List<Condition> conditions = new ArrayList<>();
+        for (String part : rewritten.toString().split("&&"))
+            conditions.add(Condition.parse(part.trim(), variables));
+
+        String[] placeholders = variablesByPlaceholder.keySet().toArray(new String[0]);
+        String[] variableNames = variablesByPlaceholder.values().toArray(new String[0]);
+        return new ExpressionCondition(raw, conditions, placeholders, variableNames);
+    }
+
+    /**
+     * Creates a condition that passes with the given probability.
+     *
+     * @param probability the probability, between 0 and 1.
+     * @return the condition.
+     * @throws IllegalArgumentException if the probability is out of range.
+     */
+    public static ActionCondition chance(double probability) {
+        if (!(probability >= 0 && probability <= 1))
+            throw new IllegalArgumentException("Chance must be between 0 and 1, got " + probability);
+        return new ChanceCondition(probability);
+    }
+
+    /**
+     * @return a condition that never passes, used in place of a condition that could not be compiled.
+     */
+    public static ActionCondition never() {
+        return NeverCondition.INSTANCE;
+    }
+
+    // Returns the index of the closing '%' of a placeholder opened at 'start', or -1 if it's the modulo operator
+    private static int findPlaceholderEnd(String raw, int start) {
+        for (int i = start + 1; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '%')
+                return i == start + 1 ? -1 : i;
+            if (Character.isWhitespace(c))
+                return -1;
+        }
+        return -1;
+    }
+
+    private static class ExpressionCondition extends ActionCondition {
+
+        private final String raw;
+        private final List<Condition> conditions;
+        private final String[] placeholders;
+        private final String[] variableNames;
+        private final PlaceholderTemplate[] templates;
+        // Expressions hold their variables while evaluating, so every thread evaluates its own copies
+        private final ThreadLocal<Evaluator> evaluator = ThreadLocal.withInitial(Evaluator::new);
+
+        private ExpressionCondition(String raw, List<Condition> conditions, String[] placeholders, String[] variableNames) {
+            this.raw = raw;
+            this.conditions = conditions;
+            this.placeholders = placeholders;
+            this.variableNames = variableNames;
+            this.templates = new PlaceholderTemplate[placeholders.length];
+            for (int i = 0; i < placeholders.length; i++)
+                templates[i] = PlaceholderTemplate.parse(placeholders[i]);
+        }
+
+        @Override
+        public boolean test(Object target, Map<String, String> replacements) {
+            Player player = target instanceof Player ? (Player) target : null;
+            Evaluator evaluator = this.evaluator.get();
+            for (int i = 0; i < placeholders.length; i++) {
+                String value = templates[i].render(player, replacements);
+                try {
+                    evaluator.variables.put(variableNames[i], Double.parseDouble(value.trim()));
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+
+            for (Condition condition : evaluator.conditions)
+                if (!condition.isTrue(evaluator.variables))
+                    return false;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return raw;
+        }
+
+        // One thread's copies of the conditions, and the variables map they are evaluated with
+        private final class Evaluator {
+
+            private final Condition[] conditions;
+            // Every variable is set before evaluating, so the map is reused as is
+            private final Map<String, Double> variables;
+
+            private Evaluator() {
+                this.conditions = new Condition[ExpressionCondition.this.conditions.size()];
+                for (int i = 0; i < conditions.length; i++)
+                    conditions[i] = ExpressionCondition.this.conditions.get(i).copy();
+                this.variables = new HashMap<>(variableNames.length * 2);
+            }
+        }
+    }
+
+    private static class ChanceCondition extends ActionCondition {
+
+        private final double probability;
+
+        private ChanceCondition(double probability) {
+            this.probability = probability;
+        }
+
+        @Override
+        public boolean test(Object target, Map<String, String> replacements) {
+            return ThreadLocalRandom.current().nextDouble() < probability;
+        }
+
+        @Override
+        public String toString() {
+            return "chance " + probability;
+        }
+    }
+
+    private static class NeverCondition extends ActionCondition {
+
+        private static final NeverCondition INSTANCE = new NeverCondition();
+
+        @Override
+        public boolean test(Object target, Map<String, String> replacements) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "never";
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package dev.splityosis.sysengine.actions;
 
-import dev.splityosis.sysengine.utils.PapiUtil;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Represents a type of action that can be performed.
@@ -51,6 +49,18 @@ public interface ActionType {
      */
     List<String> getOptionalParameters();
 
+    /**
+     * Declares the types of the required then optional parameters, in order, see {@link ParameterTypes}.
+     * Constant parameters are parsed and validated once when the actions are compiled,
+     * read them with {@link #getParameter(List, int, ParameterType, Player, Map)}.
+     *
+     * @return the parameter types, a null entry leaves a parameter untyped, or {@code null} (by default) if untyped.
+     */
+    @Nullable
+    default List<ParameterType<?>> getParameterTypes() {
+        return null;
+    }
+
     /**
      * Executes this action.
      * This assumes the parameter count is right according to{@link #getParameters()} and{@link #getOptionalParameters()}.
@@ -60,7 +70,7 @@ public interface ActionType {
      * @param params        the list of parameter values (in the same order
      *                      as required + optional parameters)
      * @param replacements  a map of replacements (e.g. {"%faction%" -> "TheBobs"})
-     *                      that can be substituted if needed
+     *                      that can be substituted if needed, changes to it only affect this execution
      *
      * @throws IllegalArgumentException if required params are missing
      *         or if there's an issue with the target type, etc.
@@ -68,10 +78,56 @@ public interface ActionType {
     void execute(@Nullable Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements)
             throws IllegalArgumentException;
 
+    /**
+     * Whether {@link #execute} can safely be called off the main thread.
+     * Thread-safe action types are executed directly on the worker thread of an asynchronous execution.
+     *
+     * @return {@code true} if this action type is thread-safe, {@code false} by default.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    /**
+     * Prepares this action off the main thread for an asynchronous execution, see {@link Actions#executeAsync(Object, Map)}.
+     * The returned side effect is run on the main thread.
+     * <p>
+     * By default nothing is prepared and the whole {@link #execute} call is deferred to the main thread,
+     * see {@link PreparedActionType} for action types that can do their string work up front.
+     *
+     * @param target        an object that the action can use or cast
+     * @param params        the list of parameter values
+     * @param replacements  a map of replacements
+     * @return the side effect to run on the main thread, or {@code null} if there's nothing to do.
+     */
+    @Nullable
+    default Runnable prepare(@Nullable Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements)
+            throws IllegalArgumentException {
+        return () -> execute(target, params, replacements);
+    }
+
     /* -------------------------------------------------
      * Helper Methods
      * ------------------------------------------------- */
 
+    /**
+     * Retrieves a parameter as a typed value, reusing the value parsed when the actions were compiled if it's constant.
+     *
+     * @param params        the parameters passed to {@link #execute} or {@link #prepare}.
+     * @param index         the index of the parameter.
+     * @param type          the type to parse the parameter as.
+     * @param player        the player to parse PlaceholderAPI placeholders for, can be null.
+     * @param replacements  the replacements passed to {@link #execute} or {@link #prepare}.
+     * @param <T>           the type of the value.
+     * @return the parsed value.
+     * @throws IllegalArgumentException if the parameter is not valid for the type.
+     */
+    default <T> T getParameter(@NotNull List<String> params, int index, @NotNull ParameterType<T> type, @Nullable Player player, @NotNull Map<String, String> replacements) {
+        if (params instanceof ParameterList)
+            return ((ParameterList) params).getValue(index, type, player, replacements);
+        return type.parse(applyPlaceholders(player, params.get(index), replacements));
+    }
+
     /**
      * Applies custom replacements to the given string and parses placeholders using PlaceholderAPI if available.
      *
@@ -81,14 +137,12 @@ public interface ActionType {
      * @return              The resulting string after applying replacements and parsing placeholders.
      */
     default String applyPlaceholders(@Nullable Player player, @NotNull String str, @NotNull Map<String, String> replacements) {
-        for (Map.Entry<String, String> entry : replacements.entrySet())
-            str = str.replace(entry.getKey(), entry.getValue());
-
-        return PapiUtil.parsePlaceholders(player, str);
+        return PlaceholderTemplate.parse(str).render(player, replacements);
     }
 
     /**
      * Applies custom replacements to each string in the list and parses placeholders using PlaceholderAPI if available.
+     * If the list is a {@link ParameterList} its pre-parsed templates are used.
      *
      * @param player        The player for whom the placeholders are being applied.
      * @param lst           The list of strings containing placeholders and custom keys to be replaced.
@@ -96,9 +150,6 @@ public interface ActionType {
      * @return              A new list of strings after applying replacements and parsing placeholders.
      */
     default List<String> applyPlaceholders(@Nullable Player player, @NotNull List<String> lst, @NotNull Map<String, String> replacements) {
-        for (Map.Entry<String, String> entry : replacements.entrySet())
-            lst = lst.stream().map(string -> string.replace(entry.getKey(), entry.getValue())).collect(Collectors.toList());
-
-        return PapiUtil.parsePlaceholders(player, lst);
+        return PlaceholderTemplate.renderAll(player, lst, replacements);
     }
 }
\ No newline at end of file
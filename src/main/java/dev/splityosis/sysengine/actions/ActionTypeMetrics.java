@@ -0,0 +1,188 @@
+package dev.splityosis.sysengine.actions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics of a single {@link ActionType}, recorded by {@link ActionsExecution}.
+ * <p>
+ * Keeps invocation and failure counters, a latency histogram of the {@link ActionType#execute}
+ * (or {@link ActionType#prepare}) calls and the total time the action type spent on the main thread.
+ * Recording is lock-free, the histogram uses 4 buckets per power of two, so percentiles are accurate to about 25%.
+ * <p>
+ * Recording is disabled by default, since it times every action. Enable it with {@link #setEnabled(boolean)}
+ * or {@code /sysengine actions stats}, which starts recording the first time it is run.
+ */
+public final class ActionTypeMetrics {
+
+    private static final Map<ActionType, ActionTypeMetrics> metricsByType = new ConcurrentHashMap<>();
+    private static volatile boolean isEnabled = false;
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = 64 * SUB_BUCKETS;
+
+    private final ActionType actionType;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder mainThreadNanos = new LongAdder();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_COUNT);
+
+    private ActionTypeMetrics(ActionType actionType) {
+        this.actionType = actionType;
+    }
+
+    /**
+     * Retrieves the metrics of an action type, creating them if needed.
+     *
+     * @param actionType the action type.
+     * @return the metrics of the action type.
+     */
+    public static ActionTypeMetrics of(ActionType actionType) {
+        return metricsByType.computeIfAbsent(actionType, ActionTypeMetrics::new);
+    }
+
+    /**
+     * @return a snapshot of the metrics of every action type that was compiled into a program.
+     */
+    public static Collection<ActionTypeMetrics> getAll() {
+        return new ArrayList<>(metricsByType.values());
+    }
+
+    /**
+     * Resets the metrics of every action type.
+     */
+    public static void resetAll() {
+        for (ActionTypeMetrics metrics : metricsByType.values())
+            metrics.reset();
+    }
+
+    /**
+     * @return whether executions currently record metrics.
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Enables or disables recording metrics, disabled by default.
+     *
+     * @param enabled whether executions should record metrics.
+     */
+    public static void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+    }
+
+    /**
+     * Records a single call of the action type.
+     *
+     * @param nanos        the duration of the call.
+     * @param failed       whether the call threw.
+     * @param onMainThread whether the call ran on the main thread.
+     */
+    public void record(long nanos, boolean failed, boolean onMainThread) {
+        invocations.increment();
+        if (failed)
+            failures.increment();
+        if (onMainThread)
+            mainThreadNanos.add(nanos);
+        histogram.incrementAndGet(bucketOf(nanos));
+    }
+
+    /**
+     * Records main-thread time used outside of the call itself, e.g. by a side effect returned from {@link ActionType#prepare}.
+     *
+     * @param nanos  the duration of the side effect.
+     * @param failed whether the side effect threw.
+     */
+    public void recordMainThread(long nanos, boolean failed) {
+        if (failed)
+            failures.increment();
+        mainThreadNanos.add(nanos);
+    }
+
+    /**
+     * Resets these metrics.
+     */
+    public void reset() {
+        invocations.reset();
+        failures.reset();
+        mainThreadNanos.reset();
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            histogram.set(i, 0);
+    }
+
+    public ActionType getActionType() {
+        return actionType;
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the total time this action type used on the main thread, in nanoseconds.
+     */
+    public long getMainThreadNanos() {
+        return mainThreadNanos.sum();
+    }
+
+    public long getP50Nanos() {
+        return getPercentileNanos(0.5);
+    }
+
+    public long getP99Nanos() {
+        return getPercentileNanos(0.99);
+    }
+
+    /**
+     * Estimates a latency percentile of the calls.
+     *
+     * @param percentile the percentile, between 0 and 1.
+     * @return the estimated latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return upperBoundOf(i);
+        }
+        return upperBoundOf(BUCKET_COUNT - 1);
+    }
+
+    // Values below SUB_BUCKETS get their own bucket, others are split into SUB_BUCKETS buckets per power of two
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS)
+            return (int) Math.max(0, nanos);
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return magnitude * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        int magnitude = bucket / SUB_BUCKETS;
+        int subBucket = bucket % SUB_BUCKETS;
+        if (magnitude < SUB_BUCKET_BITS)
+            return bucket;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -8,14 +8,20 @@ import java.util.*;
 
 /**
  * Singleton class for managing ActionType instances.
+ * <p>
+ * Lookups read an immutable snapshot and never lock, registering and unregistering copy the snapshot
+ * and swap it atomically, so action types can be (un)registered while executions run on other threads.
+ * <p>
+ * Each name or alias maps to a dense array of ActionTypes indexed by parameter count,
+ * so resolving an action line is a single array access.
  */
 public class ActionTypeRegistry {
 
-    private static ActionTypeRegistry instance;
+    private static volatile ActionTypeRegistry instance;
 
-    private final Map<String, Map<Integer, ActionType>> actionTypesByNameAndParamCount = new HashMap<>();
+    private static final ActionType[] NO_ACTION_TYPES = new ActionType[0];
 
-    private final Set<ActionType> actionTypeSet = new HashSet<>();
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyList(), 0);
 
     // Private constructor to prevent instantiation
     private ActionTypeRegistry() {}
@@ -25,10 +31,13 @@ public class ActionTypeRegistry {
      *
      * @return The singleton instance.
      */
-    public static synchronized ActionTypeRegistry get() {
-        if (instance == null)
+    public static ActionTypeRegistry get() {
+        ActionTypeRegistry registry = instance;
+        if (registry == null) {
             initialize();
-        return instance;
+            registry = instance;
+        }
+        return registry;
     }
 
     /**
@@ -38,20 +47,7 @@ public class ActionTypeRegistry {
      * @param actionType The ActionType instance to register.
      */
     public void registerActionType(ActionType actionType) {
-        Objects.requireNonNull(actionType, "ActionType cannot be null.");
-
-        int requiredCount = actionType.getParameters().size();
-        int maxCount = requiredCount + actionType.getOptionalParameters().size();
-
-        String primaryName = actionType.getName().toLowerCase();
-        registerByParamCounts(primaryName, actionType, requiredCount, maxCount);
-
-        for (String alias : actionType.getAliases()) {
-            String lowerAlias = alias.toLowerCase();
-            registerByParamCounts(lowerAlias, actionType, requiredCount, maxCount);
-        }
-
-        actionTypeSet.add(actionType);
+        registerActionTypes(actionType);
     }
 
     /**
@@ -60,10 +56,50 @@ public class ActionTypeRegistry {
      *
      * @param actionTypes An array of ActionTypes to register.
      */
-    public void registerActionTypes(ActionType... actionTypes) {
+    public synchronized void registerActionTypes(ActionType... actionTypes) {
         Objects.requireNonNull(actionTypes, "ActionTypes cannot be null.");
         for (ActionType actionType : actionTypes)
-            registerActionType(actionType);
+            Objects.requireNonNull(actionType, "ActionType cannot be null.");
+
+        Snapshot current = snapshot;
+        Map<String, NameEntry> entries = new HashMap<>(current.entries);
+        List<ActionType> ordered = new ArrayList<>(current.actionTypes);
+
+        for (ActionType actionType : actionTypes) {
+            // Re-registering moves the type to the end, so it wins again if an overriding type is unregistered
+            ordered.remove(actionType);
+            ordered.add(actionType);
+            index(entries, actionType);
+        }
+
+        snapshot = new Snapshot(entries, ordered, current.version + 1);
+    }
+
+    /**
+     * Unregisters an ActionType from the registry, removing it from all of its names, aliases and parameter counts.
+     * Registrations it had overridden are restored.
+     *
+     * @param actionType The ActionType instance to unregister.
+     * @return {@code true} if the ActionType was registered.
+     */
+    public synchronized boolean unregisterActionType(ActionType actionType) {
+        if (actionType == null)
+            return false;
+
+        Snapshot current = snapshot;
+        if (!current.actionTypes.contains(actionType))
+            return false;
+
+        List<ActionType> ordered = new ArrayList<>(current.actionTypes);
+        ordered.remove(actionType);
+
+        // Rebuild from the remaining types in registration order
+        Map<String, NameEntry> entries = new HashMap<>();
+        for (ActionType remaining : ordered)
+            index(entries, remaining);
+
+        snapshot = new Snapshot(entries, ordered, current.version + 1);
+        return true;
     }
 
     /**
@@ -74,14 +110,11 @@ public class ActionTypeRegistry {
      * @return The corresponding ActionType instance, or {@code null} if not found.
      */
     public ActionType getActionType(String name, int paramCount) {
-        if (name == null)
-            return null;
-
-        Map<Integer, ActionType> byParamCount = actionTypesByNameAndParamCount.get(name.toLowerCase());
-        if (byParamCount == null) {
+        NameEntry entry = getEntry(name);
+        if (entry == null || paramCount < 0 || paramCount >= entry.byParamCount.length) {
             return null;
         }
-        return byParamCount.get(paramCount);
+        return entry.byParamCount[paramCount];
     }
 
     /**
@@ -89,18 +122,26 @@ public class ActionTypeRegistry {
      * ignoring parameter count.
      *
      * @param name The name or alias of the ActionType.
-     * @return A list of matching ActionTypes, or an empty list if none are found.
+     * @return An unmodifiable list of the distinct matching ActionTypes, or an empty list if none are found.
      */
     public List<ActionType> getActionTypes(String name) {
-        if (name == null)
-            return Collections.emptyList();
-
-        Map<Integer, ActionType> byParamCount = actionTypesByNameAndParamCount.get(name.toLowerCase());
-        if (byParamCount == null) {
+        NameEntry entry = getEntry(name);
+        if (entry == null) {
             return Collections.emptyList();
         }
+        return entry.actionTypes;
+    }
 
-        return new ArrayList<>(byParamCount.values());
+    /**
+     * Retrieves the usages of all ActionTypes registered under a given name or alias,
+     * e.g. {@code sendMessage: "{<message>}"}, joined with "OR". Used in error messages.
+     *
+     * @param name The name or alias of the ActionType.
+     * @return The usages, or {@code null} if nothing is registered under the name.
+     */
+    public String getUsages(String name) {
+        NameEntry entry = getEntry(name);
+        return entry == null ? null : entry.usages;
     }
 
     /**
@@ -114,26 +155,26 @@ public class ActionTypeRegistry {
         if (name == null) {
             return false;
         }
-        return actionTypesByNameAndParamCount.containsKey(name.toLowerCase());
+        return getEntry(name) != null;
     }
 
     /**
      * Retrieves all registered ActionType instances.
      *
-     * @return An unmodifiable collection of all registered ActionTypes.
+     * @return An unmodifiable collection of all registered ActionTypes, in registration order.
      */
     public Collection<ActionType> getAllActionTypes() {
-        return Collections.unmodifiableCollection(actionTypeSet);
+        return snapshot.actionTypes;
     }
 
     /**
      * Initializes whatever needs to be initialized for actions.
      * You should never call this, look at {@link SYSEngine#initialize(JavaPlugin)}.
      */
-    public static void initialize() {
+    public static synchronized void initialize() {
         if (instance != null) return;
-        instance = new ActionTypeRegistry();
-        instance.registerActionTypes(
+        ActionTypeRegistry registry = new ActionTypeRegistry();
+        registry.registerActionTypes(
                 new MessageActionType(),
                 new MessagePlayerActionType(),
                 new ConsoleCommandActionType(),
@@ -147,22 +188,120 @@ public class ActionTypeRegistry {
                 new SendTitleAllActionType(),
                 new SendActionBarAllActionType()
         );
+        // Only published once the built-in types are in
+        instance = registry;
+    }
+
+    /**
+     * Retrieves the current registry version, which changes whenever an ActionType is registered or unregistered.
+     * Used by {@link ActionsProgram} to detect outdated resolutions.
+     *
+     * @return The current registry version.
+     */
+    public int getVersion() {
+        return snapshot.version;
     }
 
     public static boolean isInitialized() {
         return instance != null;
     }
 
+    // Names are stored lower cased, callers that already lower cased the name skip the conversion
+    private NameEntry getEntry(String name) {
+        if (name == null)
+            return null;
+        Map<String, NameEntry> entries = snapshot.entries;
+        NameEntry entry = entries.get(name);
+        if (entry == null) {
+            String lowerName = name.toLowerCase();
+            if (!lowerName.equals(name))
+                entry = entries.get(lowerName);
+        }
+        return entry;
+    }
+
+    /**
+     * Registers an ActionType under its name and aliases for all applicable parameter counts.
+     * Entries are replaced rather than modified, so the previous snapshot is left untouched.
+     */
+    private static void index(Map<String, NameEntry> entries, ActionType actionType) {
+        int requiredCount = actionType.getParameters().size();
+        int maxCount = requiredCount + actionType.getOptionalParameters().size();
+
+        registerByParamCounts(entries, actionType.getName().toLowerCase().intern(), actionType, requiredCount, maxCount);
+        for (String alias : actionType.getAliases())
+            registerByParamCounts(entries, alias.toLowerCase().intern(), actionType, requiredCount, maxCount);
+    }
+
     /**
      * Registers an ActionType under the given identifier for all applicable parameter counts.
      */
-    private void registerByParamCounts(String identifier, ActionType actionType, int minCount, int maxCount) {
-        Map<Integer, ActionType> map = actionTypesByNameAndParamCount
-                .computeIfAbsent(identifier, k -> new HashMap<>());
+    private static void registerByParamCounts(Map<String, NameEntry> entries, String identifier, ActionType actionType, int minCount, int maxCount) {
+        NameEntry entry = entries.get(identifier);
+        ActionType[] byParamCount = entry == null ? NO_ACTION_TYPES : entry.byParamCount;
+        if (byParamCount.length <= maxCount)
+            byParamCount = Arrays.copyOf(byParamCount, maxCount + 1);
+        else
+            byParamCount = byParamCount.clone();
 
         // For all possible param counts the action can handle (min -> max)
         for (int count = minCount; count <= maxCount; count++) {
-            map.put(count, actionType);
+            byParamCount[count] = actionType;
+        }
+        entries.put(identifier, new NameEntry(byParamCount));
+    }
+
+    /**
+     * The ActionTypes registered under a single name or alias.
+     */
+    private static final class NameEntry {
+        private final ActionType[] byParamCount;
+        private final List<ActionType> actionTypes;
+        private final String usages;
+
+        private NameEntry(ActionType[] byParamCount) {
+            this.byParamCount = byParamCount;
+
+            List<ActionType> distinct = new ArrayList<>(2);
+            for (ActionType actionType : byParamCount)
+                if (actionType != null && !distinct.contains(actionType))
+                    distinct.add(actionType);
+            this.actionTypes = Collections.unmodifiableList(distinct);
+            this.usages = generateUsages(distinct);
+        }
+
+        private static String generateUsages(List<ActionType> actionTypes) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (ActionType actionType : actionTypes)
+                stringBuilder.append(generateUsage(actionType)).append("OR ");
+
+            return stringBuilder.length() == 0 ? "" : stringBuilder.substring(0, stringBuilder.length() - 3);
+        }
+
+        private static String generateUsage(ActionType actionType) {
+            List<String> parameters = actionType.getParameters();
+            List<String> optionalParameters = actionType.getOptionalParameters();
+            StringBuilder stringBuilder = new StringBuilder(actionType.getName() + ": \"");
+            if (parameters != null)
+                parameters.forEach(string -> stringBuilder.append("{<").append(string).append(">} "));
+            if (optionalParameters != null)
+                optionalParameters.forEach(string -> stringBuilder.append("{[<").append(string).append(">]} "));
+            return stringBuilder.substring(0, stringBuilder.length() - 1) + "\"";
+        }
+    }
+
+    /**
+     * An immutable view of the registered action types.
+     */
+    private static final class Snapshot {
+        private final Map<String, NameEntry> entries;
+        private final Collection<ActionType> actionTypes;
+        private final int version;
+
+        private Snapshot(Map<String, NameEntry> entries, List<ActionType> actionTypes, int version) {
+            this.entries = entries;
+            this.actionTypes = Collections.unmodifiableList(actionTypes);
+            this.version = version;
         }
     }
 }
@@ -3,6 +3,7 @@ package dev.splityosis.sysengine.actions;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * This class makes it easy for configurators to define actions in configuration files.
@@ -39,6 +40,8 @@ import java.util.*;
 public class Actions {
 
     private final List<ActionDefinition> actionDefinitions;
+    private volatile ActionsProgram program;
+    private volatile ActionsRateLimiter rateLimiter;
 
     /**
      * Creates an empty Actions object.
@@ -67,54 +70,220 @@ public class Actions {
 
     /**
      * Executes all actions with no target or replacements.
+     * @return the execution handle.
      */
-    public void execute() {
-        execute(null, (Map<String, String>) null);
+    public ActionsExecution execute() {
+        return execute(null, (Map<String, String>) null);
     }
 
     /**
      * Executes all actions with a specific target.
      * @param target the target object for the actions.
+     * @return the execution handle.
      */
-    public void execute(@Nullable Object target) {
-        execute(target, (Map<String, String>) null);
+    public ActionsExecution execute(@Nullable Object target) {
+        return execute(target, (Map<String, String>) null);
     }
 
     /**
      * Executes all actions with a map of replacements.
      * @param replacements a map of placeholders and their replacements.
+     * @return the execution handle.
      */
-    public void execute(@Nullable Map<String, String> replacements) {
-        execute(null, replacements);
+    public ActionsExecution execute(@Nullable Map<String, String> replacements) {
+        return execute(null, replacements);
     }
 
     /**
      * Executes all actions with an array of replacements.
      * @param replacements an array where even indices are keys and odd indices are values.
+     * @return the execution handle.
      */
-    public void execute(@Nullable String... replacements) {
-        execute(null, replacements);
+    public ActionsExecution execute(@Nullable String... replacements) {
+        return execute(null, replacements);
     }
 
     /**
      * Executes all actions with a specific target and an array of replacements.
      * @param target the target object for the actions.
      * @param replacements an array where even indices are keys and odd indices are values.
+     * @return the execution handle.
      */
-    public void execute(@Nullable Object target, String... replacements) {
-        Map<String, String> replacementsMap = new HashMap<>();
-        for (int i = 0; i < replacements.length; i+=2)
-            replacementsMap.put(replacements[i], replacements[i+1]);
-        execute(target, replacementsMap);
+    public ActionsExecution execute(@Nullable Object target, String... replacements) {
+        return execute(target, ReplacementSet.of(replacements));
     }
 
     /**
      * Executes all actions with a specific target and a map of replacements.
+     * For actions triggered often, pass a {@link ReplacementSet} created once and reused across executions.
      * @param target the target object for the actions.
      * @param replacements a map of placeholders and their replacements.
+     * @return the execution handle, which can be used to cancel, pause or await the execution.
      */
-    public void execute(@Nullable Object target, @Nullable Map<String, String> replacements) {
-        new ActionsExecution(this, target, replacements).execute();
+    public ActionsExecution execute(@Nullable Object target, @Nullable Map<String, String> replacements) {
+        ActionsExecution execution = new ActionsExecution(this, target, replacements);
+        ActionsRateLimiter rateLimiter = this.rateLimiter;
+        if (rateLimiter == null)
+            execution.execute();
+        else
+            rateLimiter.submit(execution, false);
+        return execution;
+    }
+
+    /**
+     * Executes all actions over many targets with shared replacements.
+     * @param targets the targets of the actions.
+     * @param replacements a map of placeholders and their replacements, shared by all targets.
+     * @return the execution handles, in the order of the targets.
+     * @see #executeEach(Collection, Function)
+     */
+    public List<ActionsExecution> executeAll(Collection<?> targets, @Nullable Map<String, String> replacements) {
+        return executeEach(targets, replacements == null ? null : target -> replacements);
+    }
+
+    /**
+     * Executes all actions over many targets in one pass, with replacements of their own.
+     * Every target shares the same compiled program, and targets that reach a wait of the same length
+     * together are suspended and resumed together, instead of each scheduling its own continuation.
+     * Targets on cooldown are skipped (their executions are returned cancelled), but executions are never debounced.
+     * @param targets the targets of the actions.
+     * @param replacements a function providing the replacements of each target, can be null.
+     * @return the execution handles, in the order of the targets.
+     */
+    public List<ActionsExecution> executeEach(Collection<?> targets, @Nullable Function<Object, Map<String, String>> replacements) {
+        ActionsWaitGroup waitGroup = new ActionsWaitGroup();
+        ActionsRateLimiter rateLimiter = this.rateLimiter;
+        List<ActionsExecution> executions = new ArrayList<>(targets.size());
+        List<ActionsExecution> started = new ArrayList<>(targets.size());
+        for (Object target : targets) {
+            ActionsExecution execution = new ActionsExecution(this, target, replacements == null ? null : replacements.apply(target));
+            executions.add(execution);
+            if (rateLimiter != null && !rateLimiter.tryAcquire(target)) {
+                execution.cancel();
+                continue;
+            }
+            execution.setWaitGroup(waitGroup);
+            started.add(execution);
+        }
+        waitGroup.start(started);
+        return executions;
+    }
+
+    /**
+     * Executes all actions off the main thread with a specific target.
+     * @param target the target object for the actions.
+     * @return the execution handle.
+     * @see #executeAsync(Object, Map)
+     */
+    public ActionsExecution executeAsync(@Nullable Object target) {
+        return executeAsync(target, null);
+    }
+
+    /**
+     * Executes all actions off the main thread with a specific target and a map of replacements.
+     * Placeholder rendering and colorizing happen on a worker thread and only the server side effects
+     * are batched back to the main thread, so this can be called from asynchronous callbacks.
+     * Note that PlaceholderAPI placeholders are parsed on the worker thread as well.
+     * @param target the target object for the actions.
+     * @param replacements a map of placeholders and their replacements.
+     * @return the execution handle.
+     */
+    public ActionsExecution executeAsync(@Nullable Object target, @Nullable Map<String, String> replacements) {
+        ActionsExecution execution = new ActionsExecution(this, target, replacements);
+        ActionsRateLimiter rateLimiter = this.rateLimiter;
+        if (rateLimiter == null)
+            execution.executeAsync();
+        else
+            rateLimiter.submit(execution, true);
+        return execution;
+    }
+
+    /**
+     * Sets the cooldown of these actions per target.
+     * Once executed for a target, executing them again for that target within the cooldown is skipped,
+     * and the returned execution is already cancelled.
+     * Changing the cooldown or the debounce clears all cooldowns.
+     * @param ticks the cooldown in ticks, 0 to disable it.
+     */
+    public void setCooldown(int ticks) {
+        setRateLimit(ticks, getDebounce());
+    }
+
+    /**
+     * @return the cooldown of these actions per target in ticks, 0 if disabled.
+     */
+    public int getCooldown() {
+        ActionsRateLimiter rateLimiter = this.rateLimiter;
+        return rateLimiter == null ? 0 : rateLimiter.getCooldownTicks();
+    }
+
+    /**
+     * Sets the debounce window of these actions per target.
+     * Executions are held back for the window, and an execution for a target replaces (cancels) the one
+     * still held back for it, so a burst of executions only runs the last one, once the burst is over.
+     * Changing the cooldown or the debounce clears all cooldowns.
+     * @param ticks the debounce window in ticks, 0 to disable it.
+     */
+    public void setDebounce(int ticks) {
+        setRateLimit(getCooldown(), ticks);
+    }
+
+    /**
+     * @return the debounce window of these actions per target in ticks, 0 if disabled.
+     */
+    public int getDebounce() {
+        ActionsRateLimiter rateLimiter = this.rateLimiter;
+        return rateLimiter == null ? 0 : rateLimiter.getDebounceTicks();
+    }
+
+    /**
+     * Checks whether these actions are on cooldown for a target, see {@link #setCooldown(int)}.
+     * @param target the target.
+     * @return whether executing these actions for the target would be skipped.
+     */
+    public boolean isOnCooldown(@Nullable Object target) {
+        ActionsRateLimiter rateLimiter = this.rateLimiter;
+        return rateLimiter != null && rateLimiter.isOnCooldown(target);
+    }
+
+    /**
+     * Clears the cooldown of these actions for a target.
+     * @param target the target.
+     */
+    public void resetCooldown(@Nullable Object target) {
+        ActionsRateLimiter rateLimiter = this.rateLimiter;
+        if (rateLimiter != null)
+            rateLimiter.resetCooldown(target);
+    }
+
+    private synchronized void setRateLimit(int cooldownTicks, int debounceTicks) {
+        if (cooldownTicks <= 0 && debounceTicks <= 0)
+            rateLimiter = null;
+        else
+            rateLimiter = new ActionsRateLimiter(cooldownTicks, debounceTicks);
+    }
+
+    /**
+     * Compiles the action definitions into an {@link ActionsProgram}, replacing any previously compiled program.
+     * This is done for you when actions are parsed from config, call it again if you modify {@link #getActionDefinitions()}.
+     * @return the compiled program.
+     */
+    public ActionsProgram compile() {
+        ActionsProgram program = ActionsProgram.compile(actionDefinitions, ActionTypeRegistry.get());
+        this.program = program;
+        return program;
+    }
+
+    /**
+     * Returns the compiled program of this Actions object, compiling it if it was never compiled
+     * or if action types were registered since it was.
+     * @return the compiled program.
+     */
+    public ActionsProgram getProgram() {
+        ActionsProgram program = this.program;
+        if (program == null || program.isStale(ActionTypeRegistry.get()))
+            program = compile();
+        return program;
     }
 
     /**
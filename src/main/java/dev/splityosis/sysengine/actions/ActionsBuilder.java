@@ -23,6 +23,8 @@ import java.util.List;
 public class ActionsBuilder {
 
     private List<ActionDefinition> actionDefinitionList;
+    private int cooldown = 0;
+    private int debounce = 0;
 
     public ActionsBuilder() {
         actionDefinitionList = new ArrayList<>();
@@ -305,11 +307,97 @@ public class ActionsBuilder {
         return this;
     }
 
+    /**
+     * Opens an if block, the following actions only run if the condition passes. Close it with {@link #end()}.
+     * @param condition the condition, e.g. "%level% >= 10 && %kills% > 2".
+     * @return the current instance of the builder.
+     * @see ActionCondition#parse(String)
+     */
+    public ActionsBuilder ifCondition(String condition) {
+        addRawAction("if", condition);
+        return this;
+    }
+
+    /**
+     * Opens an else if branch of the current if or chance block.
+     * @param condition the condition, e.g. "%level% >= 5".
+     * @return the current instance of the builder.
+     */
+    public ActionsBuilder elseIf(String condition) {
+        addRawAction("else", condition);
+        return this;
+    }
+
+    /**
+     * Opens the else branch of the current if or chance block.
+     * @return the current instance of the builder.
+     */
+    public ActionsBuilder otherwise() {
+        addRawAction("else");
+        return this;
+    }
+
+    /**
+     * Opens a chance block, the following actions only run with the given probability. Close it with {@link #end()}.
+     * @param probability the probability, between 0 and 1.
+     * @return the current instance of the builder.
+     */
+    public ActionsBuilder chance(double probability) {
+        addRawAction("chance", String.valueOf(probability));
+        return this;
+    }
+
+    /**
+     * Opens a repeat block, the following actions run the given number of times. Close it with {@link #end()}.
+     * @param times the number of times to run the block.
+     * @return the current instance of the builder.
+     */
+    public ActionsBuilder repeat(int times) {
+        addRawAction("repeat", String.valueOf(times));
+        return this;
+    }
+
+    /**
+     * Closes the current if, chance or repeat block.
+     * @return the current instance of the builder.
+     */
+    public ActionsBuilder end() {
+        addRawAction("end");
+        return this;
+    }
+
+    /**
+     * Sets the cooldown of the built actions per target.
+     * @param ticks the cooldown in ticks.
+     * @return the current instance of the builder.
+     * @see Actions#setCooldown(int)
+     */
+    public ActionsBuilder cooldown(int ticks) {
+        this.cooldown = ticks;
+        return this;
+    }
+
+    /**
+     * Sets the debounce window of the built actions per target.
+     * @param ticks the debounce window in ticks.
+     * @return the current instance of the builder.
+     * @see Actions#setDebounce(int)
+     */
+    public ActionsBuilder debounce(int ticks) {
+        this.debounce = ticks;
+        return this;
+    }
+
     /**
      * Builds the actions into an executable Actions object.
      * @return the built Actions object.
      */
     public Actions build() {
-        return new Actions(actionDefinitionList);
+        Actions actions = new Actions(actionDefinitionList);
+        if (cooldown > 0 || debounce > 0) {
+            actions.setCooldown(cooldown);
+            actions.setDebounce(debounce);
+        }
+        return actions;
     }
 }
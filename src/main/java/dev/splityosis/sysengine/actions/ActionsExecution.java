@@ -4,95 +4,306 @@ import dev.splityosis.sysengine.SYSEngine;
 import org.bukkit.Bukkit;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * A single run of an {@link Actions} object against a target.
+ * <p>
+ * This is also the handle returned by {@link Actions#execute(Object, Map)}, it can be used to cancel,
+ * pause and resume the execution, to observe its progress and to wait for its completion.
+ * Executions that are suspended (by a wait line or by running asynchronously) are tracked per target
+ * in the {@link ActionsExecutionTracker}.
+ */
 public class ActionsExecution {
 
     private final ActionTypeRegistry actionTypeRegistry = ActionTypeRegistry.get();
     private final Actions actions;
+    private final ActionsProgram program;
     private final Object target;
-    private Map<String, String> replacements;
-    private final Iterator<ActionDefinition> actionDefinitionsIterator;
+    private final Map<String, String> replacements;
+    private volatile int index = 0;
+    private final int[] loopCounters;
+    private boolean isAsync = false;
+    // Whether side effects were handed to the MainThreadQueue, the execution only finishes once they ran
+    private boolean hasQueuedSideEffects = false;
+
+    private volatile boolean isCancelled = false;
+    private volatile boolean isPaused = false;
+    private volatile boolean isDone = false;
+    private final AtomicBoolean isHalted = new AtomicBoolean(false);
+    private volatile boolean isTracked = false;
+    private volatile ActionsTimingWheel.Timeout pendingWait;
+    private volatile ActionsWaitGroup waitGroup;
+    private CompletableFuture<ActionsExecution> completionFuture;
 
     public ActionsExecution(Actions actions, Object target, Map<String, String> replacements) {
         this.actions = actions;
+        this.program = actions.getProgram();
+        this.loopCounters = program.getLoopCount() == 0 ? null : new int[program.getLoopCount()];
         this.target = target;
-        this.replacements = replacements;
-        if (this.replacements == null)
-            this.replacements = new HashMap<>();
-        this.actionDefinitionsIterator = actions.getActionDefinitions().iterator();
+        // Action types may write to the replacements, a shared replacement set is only copied if one does
+        if (replacements == null)
+            this.replacements = new CopyOnWriteReplacements(ReplacementSet.EMPTY);
+        else if (replacements instanceof ReplacementSet)
+            this.replacements = new CopyOnWriteReplacements((ReplacementSet) replacements);
+        else
+            this.replacements = replacements;
     }
+
     public void execute() {
-        processLine();
+        run();
     }
 
-    private void processLine() {
-        if (!actionDefinitionsIterator.hasNext())
-            return;
+    /**
+     * Executes the actions off the main thread.
+     * Parameters are prepared on a worker thread, see {@link ActionType#prepare}, and only the side effects
+     * are batched back to the main thread through the {@link MainThreadQueue}.
+     * Thread-safe action types, see {@link ActionType#isThreadSafe()}, are executed directly on the worker thread.
+     * The execution is done, and its completion future completed, once the last side effect ran on the main thread.
+     */
+    public void executeAsync() {
+        isAsync = true;
+        track();
+        if (Bukkit.isPrimaryThread())
+            Bukkit.getScheduler().runTaskAsynchronously(SYSEngine.getPlugin(), this::run);
+        else
+            run();
+    }
 
-        ActionDefinition actionDefinition = actionDefinitionsIterator.next();
-        List<String> params = actionDefinition.getParameters();
-        if (params == null)
-            params = new ArrayList<>();
+    // Continues after a wait that was grouped by the ActionsWaitGroup
+    void resumeWait() {
+        run();
+    }
 
-        // Handle wait keyword
-        if (waitAliases.contains(actionDefinition.getActionType())) {
-            if (params.size() != 1)
-                Bukkit.getLogger().warning("Invalid number of parameters for " + actionDefinition.getActionType());
-            else {
-                try {
-                    int wait = Integer.parseInt(params.get(0));
-                    if (wait <= 0)
-                        throw new RuntimeException();
+    void setWaitGroup(ActionsWaitGroup waitGroup) {
+        this.waitGroup = waitGroup;
+    }
 
-                    Bukkit.getScheduler().runTaskLater(SYSEngine.getPlugin(), this::processLine, wait);
+    private void run() {
+        pendingWait = null;
+        ActionsProgram.Instruction[] instructions = program.getInstructions();
+        boolean isMainThread = Bukkit.isPrimaryThread();
+
+        while (index < instructions.length) {
+            if (isCancelled)
+                return;
+            if (isPaused && halt())
+                return;
+
+            ActionsProgram.Instruction instruction = instructions[index++];
+
+            switch (instruction.getType()) {
+                case WAIT:
+                    track();
+                    // Grouped waits are shared, cancelling this execution removes it from its group's wait
+                    if (waitGroup != null) {
+                        waitGroup.suspend(this, instruction.getWaitTicks());
+                        if (isCancelled)
+                            waitGroup.cancel(this);
+                        return;
+                    }
+                    pendingWait = ActionsTimingWheel.schedule(this::run, instruction.getWaitTicks(), isAsync);
+                    // Cancelled while scheduling, make sure the wait doesn't keep this alive
+                    if (isCancelled)
+                        pendingWait.cancel();
                     return;
-                } catch (Exception e) {
-                    Bukkit.getLogger().warning("wait keyword expects {<gameticks>}, a positive integer.");
-                }
+
+                case INVALID:
+                    Bukkit.getLogger().warning(instruction.getError());
+                    break;
+
+                case BRANCH:
+                    // Broken and unclosed conditions were reported when compiling, they never pass
+                    boolean passed;
+                    try {
+                        passed = instruction.getCondition().test(target, replacements);
+                    } catch (Exception e) {
+                        Bukkit.getLogger().severe("Exception caught while testing condition '" + instruction.getCondition() + "'");
+                        e.printStackTrace();
+                        passed = false;
+                    }
+                    if (!passed)
+                        index = instruction.getJumpTarget();
+                    break;
+
+                case JUMP:
+                    index = instruction.getJumpTarget();
+                    break;
+
+                case LOOP_START:
+                    if (instruction.getLoopCount() == 0)
+                        index = instruction.getJumpTarget();
+                    else
+                        loopCounters[instruction.getLoopSlot()] = instruction.getLoopCount();
+                    break;
+
+                case LOOP_END:
+                    if (--loopCounters[instruction.getLoopSlot()] > 0)
+                        index = instruction.getJumpTarget();
+                    break;
+
+                case ACTION:
+                    executeAction(instruction, isMainThread);
+                    break;
             }
-            processLine();
-            return;
         }
 
-        // Handle rest
-        List<ActionType> actionTypes = actionTypeRegistry.getActionTypes(actionDefinition.getActionType().toLowerCase());
-        if (actionTypes == null || actionTypes.isEmpty())
-            Bukkit.getLogger().warning("Action type with identifier '" + actionDefinition.getActionType() + "' does exist");
-        else {
-            ActionType actionType = actionTypeRegistry.getActionType(actionDefinition.getActionType().toLowerCase(), params.size());
-            if (actionType == null) {
-                Bukkit.getLogger().warning("Invalid number of parameters for ActionType '" + actionDefinition.getActionType() + "', Expected: " + generateUsages(actionTypes));
-            }
+        if (isCancelled)
+            return;
+        // Queued after the last side effect, so the execution finishes once they all ran
+        if (hasQueuedSideEffects)
+            MainThreadQueue.submit(() -> {
+                if (!isCancelled)
+                    finish(false);
+            });
+        else
+            finish(false);
+    }
+
+    private void executeAction(ActionsProgram.Instruction instruction, boolean isMainThread) {
+        ActionTypeMetrics metrics = ActionTypeMetrics.isEnabled() ? instruction.getMetrics() : null;
+        long start = metrics == null ? 0 : System.nanoTime();
+        boolean failed = false;
+        try {
+            ActionType actionType = instruction.getActionType();
+            if (!isAsync || actionType.isThreadSafe())
+                actionType.execute(target, instruction.getParameters(), replacements);
             else {
-                try {
-                    actionType.execute(target, params, replacements);
-                } catch (Exception e) {
-                    Bukkit.getLogger().severe("Exception caught while executing actionType '" + actionDefinition.getActionType() + "' with parameters: " + params);
-                    e.printStackTrace();
+                Runnable sideEffect = actionType.prepare(target, instruction.getParameters(), replacements);
+                if (sideEffect != null) {
+                    hasQueuedSideEffects = true;
+                    MainThreadQueue.submit(() -> {
+                        // Cancelled while it was queued
+                        if (isCancelled)
+                            return;
+                        if (metrics == null)
+                            sideEffect.run();
+                        else
+                            runMeasured(sideEffect, metrics);
+                    });
                 }
             }
+        } catch (Exception e) {
+            failed = true;
+            Bukkit.getLogger().severe("Exception caught while executing actionType '" + instruction.getDefinition().getActionType() + "' with parameters: " + instruction.getParameters());
+            e.printStackTrace();
+        } finally {
+            if (metrics != null)
+                metrics.record(System.nanoTime() - start, failed, isMainThread);
+        }
+    }
+
+    private static void runMeasured(Runnable sideEffect, ActionTypeMetrics metrics) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            sideEffect.run();
+            failed = false;
+        } finally {
+            metrics.recordMainThread(System.nanoTime() - start, failed);
         }
+    }
+
+    // Stops the run loop because of a pause, returns false if it was resumed in the meantime
+    private boolean halt() {
+        track();
+        isHalted.set(true);
+        return isPaused || !isHalted.compareAndSet(true, false);
+    }
+
+    /**
+     * Cancels this execution, no more lines will be run.
+     * A pending wait is released right away so the execution doesn't linger until it would have finished.
+     * Side effects of an asynchronous execution that are still queued for the main thread are dropped.
+     *
+     * @return {@code true} if the execution was cancelled, {@code false} if it already finished or was cancelled.
+     */
+    public boolean cancel() {
+        if (isDone || isCancelled)
+            return false;
+        isCancelled = true;
+
+        ActionsTimingWheel.Timeout wait = pendingWait;
+        if (wait != null)
+            wait.cancel();
+        if (waitGroup != null)
+            waitGroup.cancel(this);
+        finish(true);
+        return true;
+    }
 
-        processLine();
+    /**
+     * Pauses this execution, it stops before running its next line until {@link #resume()} is called.
+     * Time spent in an ongoing wait still counts while paused.
+     */
+    public void pause() {
+        if (isDone) return;
+        isPaused = true;
     }
 
-    private String generateUsages(List<ActionType> actionTypes) {
-        StringBuilder stringBuilder = new StringBuilder();
-        for (ActionType actionType : actionTypes)
-            stringBuilder.append(generateUsage(actionType)).append("OR ");
+    /**
+     * Resumes a paused execution, continuing from the line it stopped at.
+     */
+    public void resume() {
+        if (!isPaused) return;
+        isPaused = false;
+
+        if (!isHalted.compareAndSet(true, false) || isCancelled)
+            return;
+
+        if (isAsync)
+            Bukkit.getScheduler().runTaskAsynchronously(SYSEngine.getPlugin(), this::run);
+        else if (Bukkit.isPrimaryThread())
+            run();
+        else
+            Bukkit.getScheduler().runTask(SYSEngine.getPlugin(), this::run);
+    }
 
-        return stringBuilder.substring(0, stringBuilder.length() - 3);
+    /**
+     * Returns a future that completes with this execution once all of its lines have run,
+     * including the side effects an asynchronous execution queued for the main thread.
+     * If the execution is cancelled, the future is cancelled as well.
+     *
+     * @return the completion future of this execution.
+     */
+    public synchronized CompletableFuture<ActionsExecution> getCompletionFuture() {
+        if (completionFuture == null) {
+            completionFuture = new CompletableFuture<>();
+            if (isCancelled)
+                completionFuture.cancel(false);
+            else if (isDone)
+                completionFuture.complete(this);
+        }
+        return completionFuture;
     }
 
-    private String generateUsage(ActionType actionType) {
-        List<String> parameters = actionType.getParameters();
-        List<String> optionalParameters = actionType.getOptionalParameters();
-        StringBuilder stringBuilder = new StringBuilder(actionType.getName() + ": \"");
-        if (parameters != null)
-            parameters.forEach(string -> stringBuilder.append("{<").append(string).append(">} "));
-        if (optionalParameters != null)
-            optionalParameters.forEach(string -> stringBuilder.append("{[<").append(string).append(">]} "));
-        return stringBuilder.substring(0, stringBuilder.length() - 1) + "\"";
+    private void finish(boolean cancelled) {
+        CompletableFuture<ActionsExecution> future;
+        synchronized (this) {
+            if (isDone) return;
+            isDone = true;
+            future = completionFuture;
+        }
+
+        if (isTracked)
+            ActionsExecutionTracker.untrack(this);
+
+        if (future != null) {
+            if (cancelled)
+                future.cancel(false);
+            else
+                future.complete(this);
+        }
+    }
+
+    void track() {
+        if (isTracked || target == null) return;
+        isTracked = true;
+        ActionsExecutionTracker.track(this);
+        // Finished in the meantime by another thread, which may have checked isTracked before it was set
+        if (isDone)
+            ActionsExecutionTracker.untrack(this);
     }
 
     public final static Set<String> waitAliases = new HashSet<>(Arrays.asList("wait", "sleep", "pause", "delay"));
@@ -101,8 +312,46 @@ public class ActionsExecution {
         return actions;
     }
 
+    /**
+     * @return an iterator over the action definitions of the executed actions.
+     * @deprecated executions run a compiled program, use {@link #getProgram()} and {@link #getIndex()} to follow their progress.
+     */
+    @Deprecated
     public Iterator<ActionDefinition> getActionDefinitionsIterator() {
-        return actionDefinitionsIterator;
+        return actions.getActionDefinitions().iterator();
+    }
+
+    public ActionsProgram getProgram() {
+        return program;
+    }
+
+    /**
+     * @return the index of the next instruction to run in {@link #getProgram()}.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return whether this execution runs off the main thread, see {@link #executeAsync()}.
+     */
+    public boolean isAsync() {
+        return isAsync;
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * @return whether this execution finished running all of its lines or was cancelled.
+     */
+    public boolean isDone() {
+        return isDone;
     }
 
     public Map<String, String> getReplacements() {
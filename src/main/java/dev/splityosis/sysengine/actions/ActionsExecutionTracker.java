@@ -0,0 +1,110 @@
+package dev.splityosis.sysengine.actions;
+
+import dev.splityosis.sysengine.SYSEngine;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of in-flight {@link ActionsExecution}s per target.
+ * <p>
+ * Only executions that outlive the call that started them (waiting, paused or running asynchronously) are tracked,
+ * executions that run to completion right away never touch the tracker.
+ * Once initialized, all executions targeting a player are cancelled when that player quits.
+ */
+public final class ActionsExecutionTracker {
+
+    private static final Map<Object, Set<ActionsExecution>> executionsByTarget = new ConcurrentHashMap<>();
+    private static boolean isInitialized = false;
+
+    private ActionsExecutionTracker() {}
+
+    /**
+     * Initializes whatever needs to be initialized for tracking executions.
+     * You should never call this, look at {@link SYSEngine#initialize(JavaPlugin)}.
+     *
+     * @param plugin The plugin initializing the libraries
+     */
+    public static void initialize(JavaPlugin plugin) {
+        if (isInitialized) return;
+        isInitialized = true;
+
+        plugin.getServer().getPluginManager().registerEvents(new TrackerListener(), plugin);
+    }
+
+    /**
+     * Retrieves the in-flight executions of a target.
+     *
+     * @param target The target of the executions.
+     * @return An unmodifiable snapshot of the executions, or an empty set if there are none.
+     */
+    public static Set<ActionsExecution> getExecutions(Object target) {
+        if (target == null)
+            return Collections.emptySet();
+        Set<ActionsExecution> executions = executionsByTarget.get(target);
+        if (executions == null)
+            return Collections.emptySet();
+        return Collections.unmodifiableSet(new HashSet<>(executions));
+    }
+
+    /**
+     * Cancels all in-flight executions of a target.
+     *
+     * @param target The target of the executions.
+     * @return The number of executions that were cancelled.
+     */
+    public static int cancelAll(Object target) {
+        if (target == null)
+            return 0;
+        Set<ActionsExecution> executions = executionsByTarget.remove(target);
+        if (executions == null)
+            return 0;
+
+        int cancelled = 0;
+        for (ActionsExecution execution : executions)
+            if (execution.cancel())
+                cancelled++;
+        return cancelled;
+    }
+
+    /**
+     * @return The number of in-flight executions across all targets.
+     */
+    public static int getExecutionCount() {
+        int count = 0;
+        for (Set<ActionsExecution> executions : executionsByTarget.values())
+            count += executions.size();
+        return count;
+    }
+
+    static void track(ActionsExecution execution) {
+        executionsByTarget.compute(execution.getTarget(), (target, executions) -> {
+            if (executions == null)
+                executions = ConcurrentHashMap.newKeySet();
+            executions.add(execution);
+            return executions;
+        });
+    }
+
+    static void untrack(ActionsExecution execution) {
+        executionsByTarget.computeIfPresent(execution.getTarget(), (target, executions) -> {
+            executions.remove(execution);
+            return executions.isEmpty() ? null : executions;
+        });
+    }
+
+    private static class TrackerListener implements Listener {
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onQuit(PlayerQuitEvent event) {
+            Player player = event.getPlayer();
+            cancelAll(player);
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package dev.splityosis.sysengine.actions;
 
+import org.bukkit.Bukkit;
+
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A utility class for parsing and serializing action definitions.
@@ -10,11 +10,6 @@ import java.util.regex.Pattern;
  */
 public class ActionsParser {
 
-    private static final Pattern TYPE_PATTERN = Pattern.compile("^([^\\s{]+)(.*)$");
-    private static final Pattern UNESCAPED_BRACES_PATTERN = Pattern.compile("\\{([^}]*)\\}");
-    private static final String PLACEHOLDER_OPEN  = "\u0001";
-    private static final String PLACEHOLDER_CLOSE = "\u0002";
-
     /**
      * Parses a raw list of actions from various formats (Strings or Maps) into an {@link Actions} object.
      *
@@ -22,53 +17,78 @@ public class ActionsParser {
      * @return An {@link Actions} object containing parsed {@link ActionDefinition}s.
      */
     public static Actions parseActions(List<?> rawActions) {
+        return parseActions(rawActions, null);
+    }
+
+    /**
+     * Parses a raw list of actions from various formats (Strings or Maps) into an {@link Actions} object.
+     * Malformed lines are skipped and reported with their line and column.
+     *
+     * @param rawActions List of raw actions, either Strings or Maps.
+     * @param source     Where the actions come from (e.g. a config path), used when reporting malformed lines, can be null.
+     * @return An {@link Actions} object containing parsed {@link ActionDefinition}s.
+     */
+    public static Actions parseActions(List<?> rawActions, String source) {
         if (rawActions == null) {
             return new Actions();
         }
 
-        List<ActionDefinition> result = new ArrayList<>();
+        List<ActionDefinition> result = new ArrayList<>(rawActions.size());
+        int lineNumber = 0;
         for (Object item : rawActions) {
-            if (item instanceof String) {
-                ActionDefinition def = parseLine((String) item);
-                if (def != null) {
-                    result.add(def);
+            lineNumber++;
+            try {
+                if (item instanceof String) {
+                    ActionDefinition def = parseLine((String) item);
+                    if (def != null) {
+                        result.add(def);
+                    }
+                } else if (item instanceof Map) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> mapItem = (Map<String, Object>) item;
+                    result.addAll(parseMapAllEntries(mapItem));
+                } else {
+                    Bukkit.getLogger().warning("Unknown action format" + location(source, lineNumber) + ": " + item);
                 }
-            } else if (item instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> mapItem = (Map<String, Object>) item;
-                result.addAll(parseMapAllEntries(mapItem));
-            } else {
-                System.out.println("Unknown action format: " + item);
+            } catch (MalformedActionException e) {
+                Bukkit.getLogger().warning("Malformed action" + location(source, lineNumber) + ", column " + (e.column + 1) + ": " + e.getMessage()
+                        + "\n  " + e.text
+                        + "\n  " + repeat(' ', e.column) + "^");
             }
         }
-        return new Actions(result);
+        Actions actions = new Actions(result);
+        actions.compile();
+        return actions;
     }
 
     /**
      * Parses a single-line action definition string.
      *
      * @param line The input string to parse, e.g., "actionType{param1}{param2}".
-     * @return A parsed {@link ActionDefinition}, or null if parsing fails.
+     * @return A parsed {@link ActionDefinition}, or null if the line is empty.
+     * @throws MalformedActionException if the line is malformed.
      */
-    private static ActionDefinition parseLine(String line) {
-        if (line == null || line.trim().isEmpty()) {
+    private static ActionDefinition parseLine(String line) throws MalformedActionException {
+        if (line == null) {
             return null;
         }
 
-        Matcher matcher = TYPE_PATTERN.matcher(line.trim());
-        if (!matcher.find()) {
+        int length = line.length();
+        int i = skipWhitespace(line, 0);
+        if (i == length) {
             return null;
         }
 
-        String actionType = matcher.group(1);
-        String leftover = matcher.group(2).trim();
-
-        List<String> params = extractParameters(leftover);
-        if (params.isEmpty() && !leftover.isEmpty()) {
-            params.add(leftover);
+        int typeStart = i;
+        while (i < length && line.charAt(i) != '{' && !Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        if (i == typeStart) {
+            throw new MalformedActionException("missing action type", line, i);
         }
 
-        return new ActionDefinition(actionType, params);
+        String actionType = line.substring(typeStart, i);
+        return new ActionDefinition(actionType, extractParameters(line, skipWhitespace(line, i)));
     }
 
     /**
@@ -76,64 +96,114 @@ public class ActionsParser {
      *
      * @param mapItem The map containing action definitions.
      * @return A list of parsed {@link ActionDefinition}s.
+     * @throws MalformedActionException if an entry is malformed.
      */
-    private static List<ActionDefinition> parseMapAllEntries(Map<String, Object> mapItem) {
+    private static List<ActionDefinition> parseMapAllEntries(Map<String, Object> mapItem) throws MalformedActionException {
         if (mapItem.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<ActionDefinition> results = new ArrayList<>();
+        List<ActionDefinition> results = new ArrayList<>(mapItem.size());
 
         for (Map.Entry<String, Object> entry : mapItem.entrySet()) {
             String actionType = entry.getKey();
             if (actionType == null) continue;
 
-            String leftover = entry.getValue() == null ? "" : entry.getValue().toString().trim();
-            List<String> params = extractParameters(leftover);
-
-            if (params.isEmpty() && !leftover.isEmpty()) {
-                params.add(leftover);
-            }
-
-            results.add(new ActionDefinition(actionType, params));
+            String value = entry.getValue() == null ? "" : entry.getValue().toString();
+            results.add(new ActionDefinition(actionType, extractParameters(value, skipWhitespace(value, 0))));
         }
 
         return results;
     }
 
     /**
-     * Extracts parameters from unescaped { ... } blocks in a string.
+     * Extracts parameters from unescaped { ... } blocks in a single pass.
+     * Braces may be nested, the outermost pair delimits a parameter. A backslash followed by a brace
+     * or another backslash is read as that literal character. Text outside of braces is ignored, unless there
+     * are no braces at all, in which case the whole (trimmed) remainder is the only parameter.
      *
      * @param input The input string to extract parameters from.
+     * @param start The index to start scanning from.
      * @return A list of extracted parameters.
+     * @throws MalformedActionException if a brace is left unclosed or closed without being opened.
      */
-    private static List<String> extractParameters(String input) {
-        String placeholdered = input
-                .replace("\\{", PLACEHOLDER_OPEN)
-                .replace("\\}", PLACEHOLDER_CLOSE);
+    private static List<String> extractParameters(String input, int start) throws MalformedActionException {
+        int length = input.length();
+        if (start >= length) {
+            return new ArrayList<>(0);
+        }
 
         List<String> params = new ArrayList<>();
-        Matcher matcher = UNESCAPED_BRACES_PATTERN.matcher(placeholdered);
-        int lastEnd = 0;
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        int openIndex = -1;
+
+        for (int i = start; i < length; i++) {
+            char c = input.charAt(i);
 
-        while (matcher.find()) {
-            params.add(unescapePlaceholders(matcher.group(1)));
-            lastEnd = matcher.end();
+            if (c == '\\' && i + 1 < length) {
+                char next = input.charAt(i + 1);
+                if (next == '{' || next == '}' || next == '\\') {
+                    if (depth > 0) {
+                        current.append(next);
+                    }
+                    i++;
+                    continue;
+                }
+            }
+
+            if (c == '{') {
+                if (depth++ == 0) {
+                    openIndex = i;
+                    current.setLength(0);
+                    continue;
+                }
+            } else if (c == '}') {
+                if (depth == 0) {
+                    // A lone '}' is plain text as long as the line doesn't use braces
+                    if (openIndex == -1) {
+                        continue;
+                    }
+                    throw new MalformedActionException("unexpected '}'", input, i);
+                }
+                if (--depth == 0) {
+                    params.add(current.toString());
+                    continue;
+                }
+            }
+
+            if (depth > 0) {
+                current.append(c);
+            }
         }
 
+        if (depth > 0) {
+            throw new MalformedActionException("unclosed '{'", input, openIndex);
+        }
+
+        if (params.isEmpty()) {
+            params.add(input.substring(start).trim());
+        }
         return params;
     }
 
-    /**
-     * Reverts placeholder characters to their original brace forms.
-     *
-     * @param text The text containing placeholders.
-     * @return Text with placeholders reverted to braces.
-     */
-    private static String unescapePlaceholders(String text) {
-        return text
-                .replace(PLACEHOLDER_OPEN,  "{")
-                .replace(PLACEHOLDER_CLOSE, "}");
+    private static int skipWhitespace(String input, int index) {
+        while (index < input.length() && Character.isWhitespace(input.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static String location(String source, int lineNumber) {
+        return source == null ? " at line " + lineNumber : " at '" + source + "' line " + lineNumber;
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
     }
 
     /**
@@ -169,4 +239,18 @@ public class ActionsParser {
         }
         return result;
     }
+
+    /**
+     * Thrown while scanning a malformed action line, holds the column the problem was found at.
+     */
+    private static class MalformedActionException extends Exception {
+        private final String text;
+        private final int column;
+
+        private MalformedActionException(String message, String text, int column) {
+            super(message);
+            this.text = text;
+            this.column = column;
+        }
+    }
 }
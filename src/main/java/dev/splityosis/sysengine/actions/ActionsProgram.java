@@ -0,0 +1,450 @@
+package dev.splityosis.sysengine.actions;
+
+import org.bukkit.Bukkit;
+
+import java.util.*;
+
+/**
+ * An immutable, pre-resolved form of an {@link Actions} object.
+ * <p>
+ * Compiling resolves every {@link ActionDefinition} against the {@link ActionTypeRegistry} once,
+ * parses wait offsets and freezes the parameters into {@link ParameterList}s, so that executing the actions only
+ * walks an array of {@link Instruction}s.
+ * <p>
+ * Control flow blocks ({@code if}/{@code else}, {@code chance} and {@code repeat}, each closed by {@code end})
+ * are compiled into jumps, their conditions are compiled into {@link ActionCondition}s:
+ * <pre>
+ * {@code
+ * - if{%level% >= 10}
+ * - message{&aWelcome back, veteran!}
+ * - else if{%level% >= 5}
+ * - message{&eWelcome back!}
+ * - else
+ * - message{&7Welcome!}
+ * - end
+ * - chance{0.25}
+ * - message{&6Lucky you!}
+ * - end
+ * - repeat{3}
+ * - playSound{NOTE_PLING}
+ * - wait{10}
+ * - end
+ * }
+ * </pre>
+ * <p>
+ * A program remembers the registry version it was compiled against, see {@link #isStale(ActionTypeRegistry)}.
+ */
+public final class ActionsProgram {
+
+    private static final String IF = "if";
+    private static final String ELSE = "else";
+    private static final String CHANCE = "chance";
+    private static final String REPEAT = "repeat";
+    private static final String END = "end";
+
+    private final Instruction[] instructions;
+    private final int registryVersion;
+    private final int loopCount;
+
+    private ActionsProgram(Instruction[] instructions, int registryVersion, int loopCount) {
+        this.instructions = instructions;
+        this.registryVersion = registryVersion;
+        this.loopCount = loopCount;
+    }
+
+    /**
+     * Compiles the given action definitions against the given registry.
+     *
+     * @param actionDefinitions the action definitions to compile.
+     * @param registry          the registry used to resolve action types.
+     * @return the compiled program.
+     */
+    public static ActionsProgram compile(List<ActionDefinition> actionDefinitions, ActionTypeRegistry registry) {
+        int registryVersion = registry.getVersion();
+        List<Instruction> instructions = new ArrayList<>(actionDefinitions.size());
+
+        Deque<Block> blocks = new ArrayDeque<>();
+        int loopCount = 0;
+
+        for (ActionDefinition actionDefinition : actionDefinitions) {
+            String name = actionDefinition.getActionType() == null ? null : actionDefinition.getActionType().toLowerCase();
+            ParameterList params = new ParameterList(actionDefinition.getParameters() == null
+                    ? Collections.emptyList()
+                    : actionDefinition.getParameters());
+
+            if (IF.equals(name) || CHANCE.equals(name)) {
+                // A broken condition still opens its block, so the matching else/end lines stay balanced
+                blocks.push(new Block(name, instructions.size()));
+                instructions.add(compileBranch(actionDefinition, params, name));
+            }
+
+            else if (ELSE.equals(name)) {
+                Block block = blocks.peek();
+                if (block == null || block.isRepeat() || block.hasElse)
+                    instructions.add(Instruction.invalid(actionDefinition, params, "'else' without a matching 'if' or 'chance'"));
+                else if (params.size() > 1)
+                    instructions.add(Instruction.invalid(actionDefinition, params, "'else' expects no parameters, or a single condition for 'else if'"));
+                else {
+                    // Leaving the previous branch skips to the end of the block
+                    block.exits.add(instructions.size());
+                    instructions.add(Instruction.jump(actionDefinition, params));
+                    block.patchBranch(instructions, instructions.size());
+
+                    // 'else if{...}' is read as 'else' with a condition, which opens the next branch
+                    if (params.isEmpty())
+                        block.hasElse = true;
+                    else {
+                        block.branch = instructions.size();
+                        instructions.add(compileBranch(actionDefinition, params, IF));
+                    }
+                }
+            }
+
+            else if (REPEAT.equals(name)) {
+                int count = -1;
+                if (params.size() == 1) {
+                    try {
+                        count = Integer.parseInt(params.get(0).trim());
+                    } catch (NumberFormatException ignored) {}
+                }
+                blocks.push(new Block(name, instructions.size()));
+                if (count < 0)
+                    instructions.add(Instruction.invalid(actionDefinition, params, "repeat keyword expects {<times>}, a non-negative integer."));
+                else
+                    instructions.add(Instruction.loopStart(actionDefinition, params, loopCount++, count));
+            }
+
+            else if (END.equals(name)) {
+                Block block = blocks.poll();
+                if (block == null)
+                    instructions.add(Instruction.invalid(actionDefinition, params, "'end' without a matching 'if', 'chance' or 'repeat'"));
+                else if (block.isRepeat()) {
+                    Instruction start = instructions.get(block.start);
+                    if (start.getType() == InstructionType.LOOP_START) {
+                        instructions.set(block.start, start.withJumpTarget(instructions.size() + 1));
+                        instructions.add(Instruction.loopEnd(actionDefinition, params, start.getLoopSlot(), block.start + 1));
+                    }
+                }
+                else {
+                    block.patchBranch(instructions, instructions.size());
+                    for (int exit : block.exits)
+                        instructions.set(exit, instructions.get(exit).withJumpTarget(instructions.size()));
+                }
+            }
+
+            else
+                instructions.add(compileInstruction(actionDefinition, params, registry));
+        }
+
+        // Unclosed repeat blocks still run their body once, unclosed conditions never pass and skip the rest of the program
+        while (!blocks.isEmpty()) {
+            Block block = blocks.pop();
+            Instruction opener = instructions.get(block.start);
+            String error = "'" + block.keyword + "' block is never closed with 'end'";
+            if (block.isRepeat())
+                instructions.set(block.start, Instruction.invalid(opener.getDefinition(), opener.getParameters(), error));
+            else {
+                Bukkit.getLogger().warning(error);
+                instructions.set(block.start, Instruction.failedBranch(opener.getDefinition(), opener.getParameters(), error).withJumpTarget(instructions.size()));
+            }
+            for (int exit : block.exits)
+                instructions.set(exit, instructions.get(exit).withJumpTarget(instructions.size()));
+        }
+
+        return new ActionsProgram(instructions.toArray(new Instruction[0]), registryVersion, loopCount);
+    }
+
+    // A broken condition never passes, so its block is skipped instead of running for everyone
+    private static Instruction compileBranch(ActionDefinition actionDefinition, ParameterList params, String keyword) {
+        try {
+            return Instruction.branch(actionDefinition, params, compileCondition(keyword, params));
+        } catch (IllegalArgumentException e) {
+            String error = "Invalid " + keyword + " block: " + e.getMessage();
+            Bukkit.getLogger().warning(error);
+            return Instruction.failedBranch(actionDefinition, params, error);
+        }
+    }
+
+    private static ActionCondition compileCondition(String keyword, ParameterList params) {
+        if (params.size() != 1)
+            throw new IllegalArgumentException(keyword + " keyword expects a single {<condition>}");
+
+        if (CHANCE.equals(keyword)) {
+            double probability;
+            try {
+                probability = Double.parseDouble(params.get(0).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("chance keyword expects {<probability>}, a number between 0 and 1.");
+            }
+            return ActionCondition.chance(probability);
+        }
+        return ActionCondition.parse(params.get(0));
+    }
+
+    private static Instruction compileInstruction(ActionDefinition actionDefinition, ParameterList params, ActionTypeRegistry registry) {
+        String name = actionDefinition.getActionType();
+        if (name == null)
+            return Instruction.invalid(actionDefinition, params, "Action definition is missing an action type");
+
+        String lowerName = name.toLowerCase();
+
+        // Handle wait keyword
+        if (ActionsExecution.waitAliases.contains(lowerName)) {
+            if (params.size() != 1)
+                return Instruction.invalid(actionDefinition, params, "Invalid number of parameters for " + name);
+
+            int wait;
+            try {
+                wait = Integer.parseInt(params.get(0).trim());
+            } catch (NumberFormatException e) {
+                wait = -1;
+            }
+            if (wait <= 0)
+                return Instruction.invalid(actionDefinition, params, "wait keyword expects {<gameticks>}, a positive integer.");
+            return Instruction.waitFor(actionDefinition, params, wait);
+        }
+
+        // Handle rest
+        ActionType actionType = registry.getActionType(lowerName, params.size());
+        if (actionType == null) {
+            String usages = registry.getUsages(lowerName);
+            if (usages == null)
+                return Instruction.invalid(actionDefinition, params, "Action type with identifier '" + name + "' does not exist");
+            return Instruction.invalid(actionDefinition, params, "Invalid number of parameters for ActionType '" + name + "', Expected: " + usages);
+        }
+
+        // Constant typed parameters are parsed now, so invalid values are reported at load time
+        return Instruction.action(actionDefinition, params.typed(actionType), actionType);
+    }
+
+    /**
+     * Checks whether the registry changed since this program was compiled,
+     * meaning the resolved action types may be outdated.
+     *
+     * @param registry the registry to compare against.
+     * @return {@code true} if this program should be recompiled.
+     */
+    public boolean isStale(ActionTypeRegistry registry) {
+        return registry.getVersion() != registryVersion;
+    }
+
+    /**
+     * Returns the compiled instructions, in execution order.
+     * The returned array is shared and must not be modified.
+     *
+     * @return the instructions of this program.
+     */
+    public Instruction[] getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * @return the number of instructions in this program.
+     */
+    public int size() {
+        return instructions.length;
+    }
+
+    /**
+     * @return the number of {@code repeat} blocks in this program, each needs its own counter while executing.
+     */
+    public int getLoopCount() {
+        return loopCount;
+    }
+
+    // An open control flow block while compiling
+    private static final class Block {
+        private final String keyword;
+        private final int start;
+        private final List<Integer> exits = new ArrayList<>(1);
+        private int branch;
+        private boolean hasElse = false;
+
+        private Block(String keyword, int start) {
+            this.keyword = keyword;
+            this.start = start;
+            this.branch = start;
+        }
+
+        private boolean isRepeat() {
+            return REPEAT.equals(keyword);
+        }
+
+        // Points the pending condition of this block at the instruction to run when it fails
+        private void patchBranch(List<Instruction> instructions, int target) {
+            if (branch == -1)
+                return;
+            Instruction instruction = instructions.get(branch);
+            if (instruction.getType() == InstructionType.BRANCH)
+                instructions.set(branch, instruction.withJumpTarget(target));
+            branch = -1;
+        }
+    }
+
+    /**
+     * The kind of work an {@link Instruction} performs.
+     */
+    public enum InstructionType {
+        /** Executes a resolved {@link ActionType}. */
+        ACTION,
+        /** Suspends the execution for a number of game ticks. */
+        WAIT,
+        /** A line that could not be resolved, a warning is logged when it is reached. */
+        INVALID,
+        /**
+         * Tests an {@link ActionCondition} and jumps to {@link Instruction#getJumpTarget()} if it fails.
+         * A condition that could not be compiled always fails, its warning is logged when it is reached.
+         */
+        BRANCH,
+        /** Jumps to {@link Instruction#getJumpTarget()}. */
+        JUMP,
+        /** Starts a {@code repeat} block, jumps past it if it repeats 0 times. */
+        LOOP_START,
+        /** Ends a {@code repeat} block, jumps back to its first line while repetitions are left. */
+        LOOP_END
+    }
+
+    /**
+     * A single compiled instruction of an {@link ActionsProgram}, most lines compile to exactly one instruction.
+     */
+    public static final class Instruction {
+
+        private final InstructionType type;
+        private final ActionDefinition definition;
+        private final ParameterList parameters;
+        private final ActionType actionType;
+        private final ActionTypeMetrics metrics;
+        private final int waitTicks;
+        private final String error;
+        private final ActionCondition condition;
+        private final int jumpTarget;
+        private final int loopSlot;
+        private final int loopCount;
+
+        private Instruction(InstructionType type, ActionDefinition definition, ParameterList parameters, ActionType actionType, int waitTicks, String error,
+                            ActionCondition condition, int jumpTarget, int loopSlot, int loopCount) {
+            this.type = type;
+            this.definition = definition;
+            this.parameters = parameters;
+            this.actionType = actionType;
+            this.metrics = actionType == null ? null : ActionTypeMetrics.of(actionType);
+            this.waitTicks = waitTicks;
+            this.error = error;
+            this.condition = condition;
+            this.jumpTarget = jumpTarget;
+            this.loopSlot = loopSlot;
+            this.loopCount = loopCount;
+        }
+
+        private static Instruction action(ActionDefinition definition, ParameterList parameters, ActionType actionType) {
+            return new Instruction(InstructionType.ACTION, definition, parameters, actionType, 0, null, null, -1, -1, 0);
+        }
+
+        private static Instruction waitFor(ActionDefinition definition, ParameterList parameters, int waitTicks) {
+            return new Instruction(InstructionType.WAIT, definition, parameters, null, waitTicks, null, null, -1, -1, 0);
+        }
+
+        private static Instruction invalid(ActionDefinition definition, ParameterList parameters, String error) {
+            return new Instruction(InstructionType.INVALID, definition, parameters, null, 0, error, null, -1, -1, 0);
+        }
+
+        private static Instruction branch(ActionDefinition definition, ParameterList parameters, ActionCondition condition) {
+            return new Instruction(InstructionType.BRANCH, definition, parameters, null, 0, null, condition, -1, -1, 0);
+        }
+
+        private static Instruction failedBranch(ActionDefinition definition, ParameterList parameters, String error) {
+            return new Instruction(InstructionType.BRANCH, definition, parameters, null, 0, error, ActionCondition.never(), -1, -1, 0);
+        }
+
+        private static Instruction jump(ActionDefinition definition, ParameterList parameters) {
+            return new Instruction(InstructionType.JUMP, definition, parameters, null, 0, null, null, -1, -1, 0);
+        }
+
+        private static Instruction loopStart(ActionDefinition definition, ParameterList parameters, int loopSlot, int loopCount) {
+            return new Instruction(InstructionType.LOOP_START, definition, parameters, null, 0, null, null, -1, loopSlot, loopCount);
+        }
+
+        private static Instruction loopEnd(ActionDefinition definition, ParameterList parameters, int loopSlot, int jumpTarget) {
+            return new Instruction(InstructionType.LOOP_END, definition, parameters, null, 0, null, null, jumpTarget, loopSlot, 0);
+        }
+
+        private Instruction withJumpTarget(int jumpTarget) {
+            return new Instruction(type, definition, parameters, actionType, waitTicks, error, condition, jumpTarget, loopSlot, loopCount);
+        }
+
+        public InstructionType getType() {
+            return type;
+        }
+
+        /**
+         * @return the definition this instruction was compiled from.
+         */
+        public ActionDefinition getDefinition() {
+            return definition;
+        }
+
+        /**
+         * @return the unmodifiable parameters of this instruction, with their pre-parsed templates.
+         */
+        public ParameterList getParameters() {
+            return parameters;
+        }
+
+        /**
+         * @return the resolved action type, or {@code null} if this is not an {@link InstructionType#ACTION}.
+         */
+        public ActionType getActionType() {
+            return actionType;
+        }
+
+        /**
+         * @return the metrics of the resolved action type, or {@code null} if this is not an {@link InstructionType#ACTION}.
+         */
+        public ActionTypeMetrics getMetrics() {
+            return metrics;
+        }
+
+        /**
+         * @return the number of ticks to wait, or 0 if this is not an {@link InstructionType#WAIT}.
+         */
+        public int getWaitTicks() {
+            return waitTicks;
+        }
+
+        /**
+         * @return the warning to log, or {@code null} if this is neither an {@link InstructionType#INVALID}
+         * nor a {@link InstructionType#BRANCH} whose condition could not be compiled.
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return the condition to test, or {@code null} if this is not a {@link InstructionType#BRANCH}.
+         */
+        public ActionCondition getCondition() {
+            return condition;
+        }
+
+        /**
+         * @return the index of the instruction to jump to, or -1 if this instruction doesn't jump.
+         */
+        public int getJumpTarget() {
+            return jumpTarget;
+        }
+
+        /**
+         * @return the counter slot of the {@code repeat} block, or -1 if this is not a loop instruction.
+         */
+        public int getLoopSlot() {
+            return loopSlot;
+        }
+
+        /**
+         * @return the number of times the {@code repeat} block runs, or 0 if this is not a {@link InstructionType#LOOP_START}.
+         */
+        public int getLoopCount() {
+            return loopCount;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package dev.splityosis.sysengine.actions;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Entity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits the executions of one {@link Actions} object per target, see {@link Actions#setCooldown(int)}
+ * and {@link Actions#setDebounce(int)}.
+ * <p>
+ * Entities and offline players are keyed by a 64 bit hash of their UUID, so the tables never hold on to them.
+ * Other targets are given a key of their own by equality, which is kept only while the target is on cooldown
+ * or has an execution held back.
+ */
+final class ActionsRateLimiter {
+
+    private static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long NULL_TARGET_KEY = 0x5DEECE66DL;
+
+    private final int cooldownTicks;
+    private final int debounceTicks;
+    private final long cooldownNanos;
+    private final ExpiringLongTable<Object> cooldowns = new ExpiringLongTable<>();
+    private final ExpiringLongTable<ActionsExecution> pending = new ExpiringLongTable<>();
+    private final Map<Object, Long> otherTargetKeys = new HashMap<>();
+    private long lastOtherTargetKey = 0;
+    private int otherTargetKeysPurgeSize = 16;
+
+    ActionsRateLimiter(int cooldownTicks, int debounceTicks) {
+        this.cooldownTicks = Math.max(cooldownTicks, 0);
+        this.debounceTicks = Math.max(debounceTicks, 0);
+        this.cooldownNanos = this.cooldownTicks * NANOS_PER_TICK;
+    }
+
+    /**
+     * Starts an execution, unless its target is on cooldown, in which case the execution is cancelled.
+     * If debouncing, the execution is held back and replaces (cancels) the execution held back for the same target.
+     */
+    void submit(ActionsExecution execution, boolean async) {
+        long key = keyOf(execution.getTarget());
+        if (debounceTicks == 0) {
+            start(key, execution, async);
+            return;
+        }
+
+        ActionsExecution previous;
+        synchronized (this) {
+            long now = System.nanoTime();
+            previous = pending.get(key, now);
+            // Held back until the timing wheel fires, however late that is
+            pending.put(key, now + Long.MAX_VALUE / 2, execution, now);
+        }
+        if (previous != null)
+            previous.cancel();
+
+        // Held back executions are tracked, so they are dropped if their player quits in the meantime
+        execution.track();
+        ActionsTimingWheel.schedule(() -> {
+            synchronized (this) {
+                if (!pending.remove(key, execution))
+                    return;
+            }
+            if (!execution.isCancelled())
+                start(key, execution, async);
+        }, debounceTicks);
+    }
+
+    private void start(long key, ActionsExecution execution, boolean async) {
+        if (!acquire(key)) {
+            execution.cancel();
+            return;
+        }
+        if (async)
+            execution.executeAsync();
+        else
+            execution.execute();
+    }
+
+    /**
+     * Puts a target on cooldown, unless it already is.
+     *
+     * @return whether the target was not on cooldown.
+     */
+    boolean tryAcquire(Object target) {
+        return acquire(keyOf(target));
+    }
+
+    private synchronized boolean acquire(long key) {
+        if (cooldownTicks == 0)
+            return true;
+        long now = System.nanoTime();
+        if (cooldowns.contains(key, now))
+            return false;
+        cooldowns.put(key, now + cooldownNanos, null, now);
+        return true;
+    }
+
+    /**
+     * @return whether the target is on cooldown.
+     */
+    synchronized boolean isOnCooldown(Object target) {
+        return cooldownTicks > 0 && cooldowns.contains(keyOf(target), System.nanoTime());
+    }
+
+    /**
+     * Clears the cooldown of a target.
+     */
+    synchronized void resetCooldown(Object target) {
+        cooldowns.remove(keyOf(target), null);
+    }
+
+    int getCooldownTicks() {
+        return cooldownTicks;
+    }
+
+    int getDebounceTicks() {
+        return debounceTicks;
+    }
+
+    private long keyOf(Object target) {
+        if (target == null)
+            return NULL_TARGET_KEY;
+
+        UUID uuid = null;
+        if (target instanceof Entity)
+            uuid = ((Entity) target).getUniqueId();
+        else if (target instanceof OfflinePlayer)
+            uuid = ((OfflinePlayer) target).getUniqueId();
+        if (uuid != null)
+            return nonZero(mix(uuid.getMostSignificantBits()) ^ uuid.getLeastSignificantBits());
+
+        // Equal hash codes don't mean equal targets, so other targets get a key of their own
+        synchronized (this) {
+            Long key = otherTargetKeys.get(target);
+            if (key == null) {
+                if (otherTargetKeys.size() >= otherTargetKeysPurgeSize)
+                    purgeOtherTargetKeys();
+                key = nonZero(mix(++lastOtherTargetKey));
+                otherTargetKeys.put(target, key);
+            }
+            return key;
+        }
+    }
+
+    // Forgets the targets that are neither on cooldown nor held back anymore
+    private void purgeOtherTargetKeys() {
+        long now = System.nanoTime();
+        otherTargetKeys.values().removeIf(key -> !cooldowns.contains(key, now) && pending.get(key, now) == null);
+        otherTargetKeysPurgeSize = Math.max(16, otherTargetKeys.size() * 2);
+    }
+
+    // 0 marks a free slot in the tables
+    private static long nonZero(long key) {
+        return key == 0 ? 1 : key;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,185 @@
+package dev.splityosis.sysengine.actions;
+
+import dev.splityosis.sysengine.SYSEngine;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * A shared timing wheel that holds every suspended {@link ActionsExecution} (wait/delay lines).
+ * <p>
+ * Instead of one scheduler task per wait, a single repeating task advances the wheel every tick and resumes
+ * all executions due on that tick in one pass. Executions suspended by an asynchronous execution are resumed
+ * together in one asynchronous task.
+ * <p>
+ * Resumes can be scheduled from any thread, they are moved into the wheel on the main thread.
+ */
+public final class ActionsTimingWheel {
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    @SuppressWarnings("unchecked")
+    private static final List<Timeout>[] wheel = new List[WHEEL_SIZE];
+    private static final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger queueDepth = new AtomicInteger(0);
+    private static final AtomicBoolean isStarted = new AtomicBoolean(false);
+
+    // Only advanced on the main thread, read by schedule() from any thread
+    private static volatile long currentTick = 0;
+
+    private ActionsTimingWheel() {}
+
+    /**
+     * Schedules a resume to run on the main thread after the given number of ticks.
+     *
+     * @param resume the task to run.
+     * @param ticks  the number of ticks to wait, at least 1.
+     * @return a timeout that can be used to cancel the resume.
+     */
+    public static Timeout schedule(Runnable resume, int ticks) {
+        return schedule(resume, ticks, false);
+    }
+
+    /**
+     * Schedules a resume to run after the given number of ticks.
+     * The ticks are counted from the wheel's tick at the time this is called, not from when the wheel moves the
+     * resume in, so resumes scheduled from other threads or earlier in a tick don't gain or lose a tick.
+     *
+     * @param resume the task to run.
+     * @param ticks  the number of ticks to wait, at least 1.
+     * @param async  whether the resume should run off the main thread.
+     * @return a timeout that can be used to cancel the resume.
+     */
+    public static Timeout schedule(Runnable resume, int ticks, boolean async) {
+        Timeout timeout = new Timeout(resume, currentTick + Math.max(1, ticks), async);
+        queueDepth.incrementAndGet();
+        incoming.add(timeout);
+        if (isStarted.compareAndSet(false, true))
+            Bukkit.getScheduler().runTaskTimer(SYSEngine.getPlugin(), ActionsTimingWheel::tick, 1, 1);
+        return timeout;
+    }
+
+    /**
+     * @return the number of suspended executions waiting to be resumed.
+     */
+    public static int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    private static void tick() {
+        long currentTick = ++ActionsTimingWheel.currentTick;
+
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.isCancelled())
+                continue;
+            // Scheduled off the main thread while the previous tick was moving resumes in, it is due now
+            if (timeout.dueTick < currentTick)
+                timeout.dueTick = currentTick;
+            int slot = (int) (timeout.dueTick & WHEEL_MASK);
+            if (wheel[slot] == null)
+                wheel[slot] = new ArrayList<>();
+            wheel[slot].add(timeout);
+        }
+
+        int slot = (int) (currentTick & WHEEL_MASK);
+        List<Timeout> timeouts = wheel[slot];
+        if (timeouts == null || timeouts.isEmpty())
+            return;
+
+        List<Timeout> remaining = null;
+        List<Runnable> asyncResumes = null;
+        List<Runnable> syncResumes = new ArrayList<>(timeouts.size());
+        for (Timeout t : timeouts) {
+            if (t.dueTick > currentTick) {
+                if (t.isCancelled())
+                    continue;
+                if (remaining == null)
+                    remaining = new ArrayList<>();
+                remaining.add(t);
+                continue;
+            }
+
+            Runnable resume = t.expire();
+            if (resume == null)
+                continue;
+            if (t.async) {
+                if (asyncResumes == null)
+                    asyncResumes = new ArrayList<>();
+                asyncResumes.add(resume);
+            }
+            else
+                syncResumes.add(resume);
+        }
+        wheel[slot] = remaining;
+
+        if (asyncResumes != null) {
+            List<Runnable> finalAsyncResumes = asyncResumes;
+            Bukkit.getScheduler().runTaskAsynchronously(SYSEngine.getPlugin(), () -> runAll(finalAsyncResumes));
+        }
+        runAll(syncResumes);
+    }
+
+    private static void runAll(List<Runnable> resumes) {
+        for (Runnable resume : resumes) {
+            try {
+                resume.run();
+            } catch (Exception e) {
+                Bukkit.getLogger().log(Level.SEVERE, "Exception caught while resuming a suspended actions execution", e);
+            }
+        }
+    }
+
+    /**
+     * A resume held by the wheel.
+     */
+    public static final class Timeout {
+        private final AtomicBoolean isDone = new AtomicBoolean(false);
+        private final boolean async;
+        private volatile Runnable resume;
+        private volatile boolean isCancelled = false;
+        private long dueTick;
+
+        private Timeout(Runnable resume, long dueTick, boolean async) {
+            this.resume = resume;
+            this.dueTick = dueTick;
+            this.async = async;
+        }
+
+        /**
+         * Cancels the resume and releases its reference, so a cancelled execution
+         * isn't kept alive until its wait would have finished.
+         *
+         * @return {@code true} if the resume was cancelled, {@code false} if it already ran or was cancelled.
+         */
+        public boolean cancel() {
+            if (!isDone.compareAndSet(false, true))
+                return false;
+            isCancelled = true;
+            resume = null;
+            queueDepth.decrementAndGet();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+
+        // Claims the resume for running, null if it was cancelled
+        private Runnable expire() {
+            if (!isDone.compareAndSet(false, true))
+                return null;
+            Runnable resume = this.resume;
+            this.resume = null;
+            queueDepth.decrementAndGet();
+            return resume;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package dev.splityosis.sysengine.actions;
+
+import org.bukkit.Bukkit;
+
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Groups the waits of executions started together by {@link Actions#executeAll} and {@link Actions#executeEach}.
+ * <p>
+ * Executions that hit a wait of the same length during the same round are suspended under a single
+ * {@link ActionsTimingWheel} entry, and resumed together in one pass once it expires.
+ * Cancelled executions are removed from their wait right away, and a wait left without executions is dropped.
+ */
+final class ActionsWaitGroup {
+
+    // Waits collected during the current round, scheduled once it ends
+    private Map<Integer, Wait> pending;
+    // Waits scheduled on the timing wheel
+    private final List<Wait> scheduled = new ArrayList<>();
+    private int rounds = 0;
+
+    /**
+     * Starts the executions, one after another.
+     */
+    void start(List<ActionsExecution> executions) {
+        runRound(executions, true);
+    }
+
+    /**
+     * Suspends an execution of this group for the given number of ticks.
+     */
+    void suspend(ActionsExecution execution, int ticks) {
+        Wait wait;
+        synchronized (this) {
+            if (rounds > 0) {
+                if (pending == null)
+                    pending = new HashMap<>();
+                pending.computeIfAbsent(ticks, k -> new Wait()).executions.add(execution);
+                return;
+            }
+
+            // Outside of a round (e.g. resumed after a pause), the execution waits on its own
+            wait = new Wait();
+            wait.executions.add(execution);
+            scheduled.add(wait);
+        }
+        schedule(wait, ticks);
+    }
+
+    /**
+     * Removes a cancelled execution from the wait it is suspended in, if any.
+     */
+    void cancel(ActionsExecution execution) {
+        ActionsTimingWheel.Timeout timeout = null;
+        synchronized (this) {
+            if (pending != null) {
+                for (Wait wait : pending.values())
+                    if (wait.executions.remove(execution))
+                        return;
+            }
+
+            Iterator<Wait> iterator = scheduled.iterator();
+            while (iterator.hasNext()) {
+                Wait wait = iterator.next();
+                if (!wait.executions.remove(execution))
+                    continue;
+                if (wait.executions.isEmpty()) {
+                    iterator.remove();
+                    timeout = wait.timeout;
+                }
+                break;
+            }
+        }
+        if (timeout != null)
+            timeout.cancel();
+    }
+
+    private void schedule(Wait wait, int ticks) {
+        ActionsTimingWheel.Timeout timeout = ActionsTimingWheel.schedule(() -> resume(wait), ticks);
+        boolean isEmpty;
+        synchronized (this) {
+            wait.timeout = timeout;
+            isEmpty = wait.executions.isEmpty();
+        }
+        // Every execution was cancelled while scheduling
+        if (isEmpty)
+            timeout.cancel();
+    }
+
+    private void resume(Wait wait) {
+        List<ActionsExecution> executions;
+        synchronized (this) {
+            scheduled.remove(wait);
+            executions = wait.executions;
+            wait.executions = Collections.emptyList();
+        }
+        runRound(executions, false);
+    }
+
+    private void runRound(List<ActionsExecution> executions, boolean isStart) {
+        synchronized (this) {
+            rounds++;
+        }
+
+        try {
+            for (ActionsExecution execution : executions) {
+                try {
+                    if (isStart)
+                        execution.execute();
+                    else if (!execution.isCancelled())
+                        execution.resumeWait();
+                } catch (Exception e) {
+                    Bukkit.getLogger().log(Level.SEVERE, "Exception caught while running a grouped actions execution", e);
+                }
+            }
+        } finally {
+            flush();
+        }
+    }
+
+    private void flush() {
+        List<Map.Entry<Integer, Wait>> waits = new ArrayList<>();
+        synchronized (this) {
+            if (--rounds > 0 || pending == null)
+                return;
+            for (Map.Entry<Integer, Wait> entry : pending.entrySet()) {
+                if (entry.getValue().executions.isEmpty())
+                    continue;
+                scheduled.add(entry.getValue());
+                waits.add(entry);
+            }
+            pending = null;
+        }
+
+        for (Map.Entry<Integer, Wait> entry : waits)
+            schedule(entry.getValue(), entry.getKey());
+    }
+
+    // The executions suspended under one timing wheel entry, guarded by the group
+    private static final class Wait {
+        private List<ActionsExecution> executions = new ArrayList<>();
+        private ActionsTimingWheel.Timeout timeout;
+    }
+}
@@ -0,0 +1,182 @@
+package dev.splityosis.sysengine.actions;
+
+import dev.splityosis.sysengine.SYSEngine;
+import dev.splityosis.sysengine.utils.ColorUtil;
+import dev.splityosis.sysengine.utils.PapiUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Spreads per-player work of "All" action types (e.g. sendMessageAll, sendTitleAll) over several ticks.
+ * <p>
+ * At most {@link #getPlayersPerTick()} players are handled per tick, the rest of the audience is handled
+ * on the following ticks. Players that went offline before their turn are skipped.
+ * <p>
+ * Text sent to the audience is rendered once through {@link AudienceText}, only the PlaceholderAPI placeholders
+ * of a text without a context player are parsed per recipient.
+ */
+public final class AudienceFanOut {
+
+    private static volatile int playersPerTick = 100;
+
+    private AudienceFanOut() {}
+
+    /**
+     * Runs the task for every online player, spread over as many ticks as the per-tick budget requires.
+     * Must be called on the main thread.
+     *
+     * @param task the task to run for each player.
+     */
+    public static void forEachOnlinePlayer(Consumer<Player> task) {
+        forEach(new ArrayList<>(Bukkit.getOnlinePlayers()), task);
+    }
+
+    /**
+     * Runs the task for every player of the audience, spread over as many ticks as the per-tick budget requires.
+     * The first batch runs right away, so it keeps its order with whatever runs after it.
+     * Must be called on the main thread.
+     *
+     * @param audience the players to run the task for.
+     * @param task     the task to run for each player.
+     */
+    public static void forEach(List<? extends Player> audience, Consumer<Player> task) {
+        int budget = playersPerTick;
+        if (budget <= 0 || audience.size() <= budget) {
+            for (Player player : audience)
+                runFor(player, task);
+            return;
+        }
+
+        for (int i = 0; i < budget; i++)
+            runFor(audience.get(i), task);
+
+        new BukkitRunnable() {
+            private int index = budget;
+
+            @Override
+            public void run() {
+                int end = Math.min(index + budget, audience.size());
+                for (; index < end; index++) {
+                    Player player = audience.get(index);
+                    if (player.isOnline())
+                        runFor(player, task);
+                }
+                if (index >= audience.size())
+                    cancel();
+            }
+        }.runTaskTimer(SYSEngine.getPlugin(), 1, 1);
+    }
+
+    private static void runFor(Player player, Consumer<Player> task) {
+        try {
+            task.accept(player);
+        } catch (Exception e) {
+            Bukkit.getLogger().log(Level.SEVERE, "Exception caught while fanning out an action to " + player.getName(), e);
+        }
+    }
+
+    /**
+     * Gets the maximum number of players handled per tick by a fan-out.
+     *
+     * @return the per-tick budget, 0 or less means the whole audience is handled in one tick.
+     */
+    public static int getPlayersPerTick() {
+        return playersPerTick;
+    }
+
+    /**
+     * Sets the maximum number of players handled per tick by a fan-out.
+     *
+     * @param playersPerTick the per-tick budget, 0 or less handles the whole audience in one tick.
+     */
+    public static void setPlayersPerTick(int playersPerTick) {
+        AudienceFanOut.playersPerTick = playersPerTick;
+    }
+
+    /**
+     * A text rendered once for a whole audience.
+     * <p>
+     * Replacements are applied once. PlaceholderAPI placeholders are parsed once for the context player if there
+     * is one, like a single-player action would. Without a context player, they are the only player-dependent part
+     * and are parsed per recipient, the rest of the text is shared.
+     */
+    public static final class AudienceText {
+
+        private final String shared;
+        private final PlaceholderTemplate perRecipient;
+
+        private AudienceText(String shared, PlaceholderTemplate perRecipient) {
+            this.shared = shared;
+            this.perRecipient = perRecipient;
+        }
+
+        /**
+         * @param params       the parameters of the action.
+         * @param index        the index of the text parameter.
+         * @param player       the context player to parse PlaceholderAPI placeholders for, null parses them per recipient.
+         * @param replacements the custom replacements.
+         * @return the audience text.
+         */
+        public static AudienceText of(@NotNull List<String> params, int index, @Nullable Player player, @NotNull Map<String, String> replacements) {
+            PlaceholderTemplate template = params instanceof ParameterList
+                    ? ((ParameterList) params).getTemplate(index)
+                    : PlaceholderTemplate.parse(params.get(index));
+            String rendered = template.render(player, replacements, false);
+
+            if (player != null || !PapiUtil.isPapiAvailable())
+                return new AudienceText(ColorUtil.colorize(PapiUtil.parsePlaceholders(player, rendered)), null);
+
+            // The slots left once the replacements are applied are the PlaceholderAPI placeholders
+            PlaceholderTemplate placeholders = PlaceholderTemplate.parse(rendered);
+            if (!placeholders.hasSlots())
+                return new AudienceText(ColorUtil.colorize(rendered), null);
+            return new AudienceText(null, placeholders);
+        }
+
+        /**
+         * @return whether the text is the same for every recipient.
+         */
+        public boolean isShared() {
+            return perRecipient == null;
+        }
+
+        /**
+         * @param player the recipient.
+         * @return the text to send to the recipient.
+         */
+        public String forPlayer(Player player) {
+            if (perRecipient == null)
+                return shared;
+
+            List<String> slots = new ArrayList<>();
+            for (int i = 0; i < perRecipient.getSegmentCount(); i++)
+                if (perRecipient.isSlot(i))
+                    slots.add(perRecipient.getSegment(i));
+            List<String> values = PapiUtil.parsePlaceholdersBatch(player, slots);
+
+            StringBuilder builder = new StringBuilder(perRecipient.getSource().length() + 16);
+            int slot = 0;
+            for (int i = 0; i < perRecipient.getSegmentCount(); i++)
+                builder.append(perRecipient.isSlot(i) ? values.get(slot++) : perRecipient.getSegment(i));
+            return ColorUtil.colorize(builder.toString());
+        }
+
+        /**
+         * @return the text with PlaceholderAPI placeholders parsed without a player, e.g. for the console.
+         */
+        public String getShared() {
+            if (perRecipient == null)
+                return shared;
+            return ColorUtil.colorize(PapiUtil.parsePlaceholders((Player) null, perRecipient.getSource()));
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package dev.splityosis.sysengine.actions;
+
+import dev.splityosis.sysengine.SYSEngine;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Dispatches the commands of {@code runConsoleCommand} and {@code sudo} actions under a per-tick time budget.
+ * <p>
+ * Commands are dispatched right away while the tick's budget lasts, once it is spent they are queued and drained
+ * at the start of the next ticks, so a burst of commands is spread over several ticks instead of stalling one.
+ * Commands are always dispatched in the order they were issued, but only relative to each other: other actions
+ * aren't queued, so they can take effect before a deferred command that was issued before them.
+ * Identical commands issued by the same sender
+ * in the same tick can be merged into one, see {@link #setMergeDuplicates(boolean)}.
+ * Queued commands are all dispatched when the plugin that initialized the dispatcher is disabled.
+ */
+public final class CommandDispatcher {
+
+    private static final Queue<QueuedCommand> queue = new ConcurrentLinkedQueue<>();
+    private static final Set<QueuedCommand> issuedThisTick = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger queueDepth = new AtomicInteger();
+    private static volatile boolean isInitialized = false;
+    private static volatile long tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    private static volatile boolean mergeDuplicates = false;
+    private static long spentThisTick = 0;
+
+    private static final LongAdder dispatched = new LongAdder();
+    private static final LongAdder merged = new LongAdder();
+    private static final LongAdder deferred = new LongAdder();
+    private static final LongAdder totalLatencyNanos = new LongAdder();
+    private static final AtomicLong maxLatencyNanos = new AtomicLong();
+    private static final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    private CommandDispatcher() {}
+
+    /**
+     * Initializes the per-tick drain of the dispatcher.
+     * You should never call this, look at {@link SYSEngine#initialize(JavaPlugin)}.
+     *
+     * @param plugin The plugin initializing the libraries
+     */
+    public static void initialize(JavaPlugin plugin) {
+        if (isInitialized) return;
+        Bukkit.getScheduler().runTaskTimer(plugin, CommandDispatcher::tick, 1, 1);
+        plugin.getServer().getPluginManager().registerEvents(new DisableListener(plugin), plugin);
+        isInitialized = true;
+    }
+
+    /**
+     * Dispatches every queued command right away, regardless of the tick budget.
+     * This is done for you when the plugin that initialized the dispatcher is disabled, must be called on the main thread.
+     */
+    public static void flush() {
+        QueuedCommand queuedCommand;
+        while ((queuedCommand = queue.poll()) != null) {
+            queueDepth.decrementAndGet();
+            run(queuedCommand);
+        }
+    }
+
+    /**
+     * Dispatches a command, or queues it for the next ticks if this tick's budget is spent.
+     * Can be called from any thread, commands are always dispatched on the main thread.
+     *
+     * @param sender  the sender of the command.
+     * @param command the command, without a leading slash.
+     */
+    public static void dispatch(CommandSender sender, String command) {
+        if (!isInitialized) {
+            Bukkit.dispatchCommand(sender, command);
+            return;
+        }
+
+        QueuedCommand queuedCommand = new QueuedCommand(sender, command);
+        if (mergeDuplicates && !issuedThisTick.add(queuedCommand)) {
+            merged.increment();
+            return;
+        }
+
+        // Ordering is kept by only dispatching directly if nothing is waiting
+        if (Bukkit.isPrimaryThread() && queueDepth.get() == 0 && spentThisTick < tickBudgetNanos) {
+            run(queuedCommand);
+            return;
+        }
+
+        deferred.increment();
+        queue.add(queuedCommand);
+        peakQueueDepth.accumulateAndGet(queueDepth.incrementAndGet(), Math::max);
+    }
+
+    private static void tick() {
+        spentThisTick = 0;
+        issuedThisTick.clear();
+
+        QueuedCommand queuedCommand;
+        while (spentThisTick < tickBudgetNanos && (queuedCommand = queue.poll()) != null) {
+            queueDepth.decrementAndGet();
+            run(queuedCommand);
+        }
+    }
+
+    private static void run(QueuedCommand queuedCommand) {
+        // A player that quit while its command was queued
+        if (queuedCommand.sender instanceof Player && !((Player) queuedCommand.sender).isOnline())
+            return;
+
+        long start = System.nanoTime();
+        try {
+            Bukkit.dispatchCommand(queuedCommand.sender, queuedCommand.command);
+        } catch (Exception e) {
+            Bukkit.getLogger().log(Level.SEVERE, "Exception caught while dispatching command '" + queuedCommand.command + "'", e);
+        }
+        long end = System.nanoTime();
+        spentThisTick += end - start;
+
+        long latency = end - queuedCommand.issuedAt;
+        dispatched.increment();
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Sets how long commands may run in a single tick before the rest are deferred to the next tick, 5ms by default.
+     * At least one queued command is dispatched every tick.
+     *
+     * @param budget the budget.
+     * @param unit   the unit of the budget.
+     */
+    public static void setTickBudget(long budget, TimeUnit unit) {
+        tickBudgetNanos = Math.max(unit.toNanos(budget), 1);
+    }
+
+    /**
+     * @return the per-tick budget in nanoseconds.
+     */
+    public static long getTickBudgetNanos() {
+        return tickBudgetNanos;
+    }
+
+    /**
+     * Sets whether identical commands issued by the same sender in the same tick are merged, disabled by default.
+     * Only enable it if every command is idempotent, otherwise e.g. a reward given in a repeat block, or given to
+     * two triggers in the same tick, is only given once.
+     *
+     * @param merge whether to merge duplicate commands.
+     */
+    public static void setMergeDuplicates(boolean merge) {
+        mergeDuplicates = merge;
+    }
+
+    public static boolean isMergeDuplicates() {
+        return mergeDuplicates;
+    }
+
+    /**
+     * @return the number of commands waiting for the next ticks.
+     */
+    public static int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return the highest queue depth since the metrics were reset.
+     */
+    public static int getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    /**
+     * @return the number of dispatched commands.
+     */
+    public static long getDispatched() {
+        return dispatched.sum();
+    }
+
+    /**
+     * @return the number of commands that were dropped as duplicates of a command issued in the same tick.
+     */
+    public static long getMerged() {
+        return merged.sum();
+    }
+
+    /**
+     * @return the number of commands that couldn't be dispatched right away and were queued.
+     */
+    public static long getDeferred() {
+        return deferred.sum();
+    }
+
+    /**
+     * @return the average time between issuing and finishing dispatching a command, in nanoseconds.
+     */
+    public static long getAverageLatencyNanos() {
+        long count = dispatched.sum();
+        return count == 0 ? 0 : totalLatencyNanos.sum() / count;
+    }
+
+    /**
+     * @return the longest time between issuing and finishing dispatching a command, in nanoseconds.
+     */
+    public static long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * Resets the dispatcher metrics, the queue depth is left as is.
+     */
+    public static void resetMetrics() {
+        dispatched.reset();
+        merged.reset();
+        deferred.reset();
+        totalLatencyNanos.reset();
+        maxLatencyNanos.set(0);
+        peakQueueDepth.set(queueDepth.get());
+    }
+
+    private static final class QueuedCommand {
+
+        private final CommandSender sender;
+        private final String command;
+        private final long issuedAt = System.nanoTime();
+
+        private QueuedCommand(CommandSender sender, String command) {
+            this.sender = sender;
+            this.command = command;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof QueuedCommand)) return false;
+            QueuedCommand other = (QueuedCommand) o;
+            return sender == other.sender && command.equals(other.command);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(sender) + command.hashCode();
+        }
+    }
+
+    private static final class DisableListener implements Listener {
+
+        private final JavaPlugin plugin;
+
+        private DisableListener(JavaPlugin plugin) {
+            this.plugin = plugin;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onDisable(PluginDisableEvent event) {
+            if (event.getPlugin() != plugin)
+                return;
+            // The drain task is cancelled with the plugin, commands issued from now on are dispatched right away
+            isInitialized = false;
+            flush();
+        }
+    }
+}
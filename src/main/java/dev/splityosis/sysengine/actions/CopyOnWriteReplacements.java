@@ -0,0 +1,87 @@
+package dev.splityosis.sysengine.actions;
+
+import java.util.*;
+
+/**
+ * The replacements of a single {@link ActionsExecution}, backed by a shared {@link ReplacementSet}.
+ * <p>
+ * Action types may add or remove replacements while executing, like they could when every execution had its own
+ * {@link HashMap}. The shared set is only copied into a map of this execution's own on the first write, until then
+ * {@link PlaceholderTemplate} renders straight from the set.
+ */
+final class CopyOnWriteReplacements extends AbstractMap<String, String> {
+
+    private final ReplacementSet shared;
+    private Map<String, String> copy;
+
+    CopyOnWriteReplacements(ReplacementSet shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * @return the map reads currently go to, the shared replacement set if nothing was written yet.
+     */
+    Map<String, String> current() {
+        return copy == null ? shared : copy;
+    }
+
+    static Map<String, String> unwrap(Map<String, String> replacements) {
+        return replacements instanceof CopyOnWriteReplacements ? ((CopyOnWriteReplacements) replacements).current() : replacements;
+    }
+
+    private Map<String, String> writable() {
+        if (copy == null)
+            copy = new HashMap<>(shared);
+        return copy;
+    }
+
+    @Override
+    public String get(Object key) {
+        return current().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return current().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return current().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return current().isEmpty();
+    }
+
+    @Override
+    public String put(String key, String value) {
+        return writable().put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends String> map) {
+        writable().putAll(map);
+    }
+
+    @Override
+    public String remove(Object key) {
+        if (copy == null && !shared.containsKey(key))
+            return null;
+        return writable().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (copy == null && shared.isEmpty())
+            return;
+        writable().clear();
+    }
+
+    // The entries may be removed through the set, so iterating copies the shared set as well
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return writable().entrySet();
+    }
+}
@@ -0,0 +1,163 @@
+package dev.splityosis.sysengine.actions;
+
+/**
+ * An open addressing hash table from {@code long} keys to values that expire at a {@link System#nanoTime()} deadline.
+ * <p>
+ * Keys and deadlines are stored in primitive arrays so that lookups don't box, and expired entries are dropped
+ * whenever the table would otherwise have to grow. The key {@code 0} marks free slots and can't be used.
+ * It is not thread-safe.
+ *
+ * @param <V> the type of the values, values can be null.
+ */
+final class ExpiringLongTable<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] deadlines;
+    private Object[] values;
+    private int size = 0;
+
+    ExpiringLongTable() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * @return the value of a key that hasn't expired yet, or null.
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key, long now) {
+        int slot = find(key);
+        if (slot == -1 || deadlines[slot] - now <= 0)
+            return null;
+        return (V) values[slot];
+    }
+
+    /**
+     * @return whether the key is in the table and hasn't expired yet.
+     */
+    boolean contains(long key, long now) {
+        int slot = find(key);
+        return slot != -1 && deadlines[slot] - now > 0;
+    }
+
+    /**
+     * Adds a key, or replaces its deadline and value if it is already in the table.
+     */
+    void put(long key, long deadline, V value, long now) {
+        int slot = find(key);
+        if (slot == -1) {
+            if ((size + 1) * 4 > keys.length * 3)
+                rehash(now);
+            slot = insertionSlot(key);
+            keys[slot] = key;
+            size++;
+        }
+        deadlines[slot] = deadline;
+        values[slot] = value;
+    }
+
+    /**
+     * Removes a key if it is mapped to the given value.
+     *
+     * @return whether the key was removed.
+     */
+    boolean remove(long key, V value) {
+        int slot = find(key);
+        if (slot == -1 || values[slot] != value)
+            return false;
+        delete(slot);
+        return true;
+    }
+
+    /**
+     * Drops every expired entry.
+     */
+    void purge(long now) {
+        rehash(now);
+    }
+
+    /**
+     * @return the number of entries, including expired entries that were not dropped yet.
+     */
+    int size() {
+        return size;
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == key)
+                return slot;
+            if (existing == 0)
+                return -1;
+        }
+    }
+
+    private int insertionSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    // Backward shift deletion, so probe sequences stay intact without tombstones
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            // Only move entries whose home slot isn't between the gap and their current slot
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                deadlines[gap] = deadlines[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        size--;
+    }
+
+    private void rehash(long now) {
+        long[] oldKeys = keys;
+        long[] oldDeadlines = deadlines;
+        Object[] oldValues = values;
+
+        int live = 0;
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldKeys[i] != 0 && oldDeadlines[i] - now > 0)
+                live++;
+
+        int capacity = MIN_CAPACITY;
+        while (live * 2 > capacity)
+            capacity <<= 1;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0 || oldDeadlines[i] - now <= 0)
+                continue;
+            int slot = insertionSlot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            deadlines[slot] = oldDeadlines[i];
+            values[slot] = oldValues[i];
+        }
+        size = live;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        deadlines = new long[capacity];
+        values = new Object[capacity];
+    }
+}
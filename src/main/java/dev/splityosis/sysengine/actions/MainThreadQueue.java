@@ -0,0 +1,52 @@
+package dev.splityosis.sysengine.actions;
+
+import dev.splityosis.sysengine.SYSEngine;
+import org.bukkit.Bukkit;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Collects side effects submitted from any thread and runs them on the main thread,
+ * in submission order, using at most one scheduled task per tick.
+ */
+public final class MainThreadQueue {
+
+    private static final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean isScheduled = new AtomicBoolean(false);
+
+    private MainThreadQueue() {}
+
+    /**
+     * Queues a task to run on the main thread with the rest of this tick's batch.
+     *
+     * @param task the task to run.
+     */
+    public static void submit(Runnable task) {
+        queue.add(task);
+        if (isScheduled.compareAndSet(false, true))
+            Bukkit.getScheduler().runTask(SYSEngine.getPlugin(), MainThreadQueue::drain);
+    }
+
+    /**
+     * @return the number of tasks waiting for the next drain.
+     */
+    public static int size() {
+        return queue.size();
+    }
+
+    private static void drain() {
+        isScheduled.set(false);
+
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                Bukkit.getLogger().log(Level.SEVERE, "Exception caught while running a queued action side effect", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package dev.splityosis.sysengine.actions;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of action parameters that also holds a pre-parsed {@link PlaceholderTemplate} for every parameter.
+ * This is what compiled {@link ActionsProgram}s pass to {@link ActionType#execute}, so that
+ * {@link ActionType#applyPlaceholders} doesn't need to parse the parameters again on every execution.
+ * <p>
+ * If the action type declares {@link ActionType#getParameterTypes()}, constant parameters are also parsed once,
+ * see {@link #getValue(int, ParameterType, Player, Map)}.
+ */
+public final class ParameterList extends AbstractList<String> implements RandomAccess {
+
+    private static final Object UNRESOLVED = new Object();
+
+    private final String[] values;
+    private final PlaceholderTemplate[] templates;
+    private final ParameterType<?>[] types;
+    private final Object[] constants;
+
+    public ParameterList(List<String> values) {
+        int size = values.size();
+        this.values = new String[size];
+        this.templates = new PlaceholderTemplate[size];
+        for (int i = 0; i < size; i++) {
+            String value = values.get(i) == null ? "" : values.get(i);
+            this.values[i] = value;
+            this.templates[i] = PlaceholderTemplate.parse(value);
+        }
+        this.types = null;
+        this.constants = null;
+    }
+
+    private ParameterList(String[] values, PlaceholderTemplate[] templates, ParameterType<?>[] types, Object[] constants) {
+        this.values = values;
+        this.templates = templates;
+        this.types = types;
+        this.constants = constants;
+    }
+
+    /**
+     * Creates a copy of this list where the constant parameters are parsed with the action type's parameter types.
+     *
+     * Parameters that don't parse are logged and left to be parsed when executed, since they may hold replacement keys.
+     *
+     * @param actionType the action type the parameters belong to.
+     * @return the typed parameter list, or this list if the action type doesn't declare parameter types.
+     */
+    ParameterList typed(ActionType actionType) {
+        List<ParameterType<?>> parameterTypes = actionType.getParameterTypes();
+        if (parameterTypes == null || parameterTypes.isEmpty())
+            return this;
+
+        ParameterType<?>[] types = new ParameterType<?>[values.length];
+        Object[] constants = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            constants[i] = UNRESOLVED;
+            ParameterType<?> type = i < parameterTypes.size() ? parameterTypes.get(i) : null;
+            types[i] = type;
+            // Strings are rendered through their template anyway, and placeholders can only be parsed once rendered.
+            // Values that aren't cacheable may only become valid later (e.g. a world loaded after the actions), so they aren't checked now
+            if (type == null || type == ParameterTypes.STRING || !type.isCacheable() || mayContainPlaceholders(values[i]))
+                continue;
+
+            Object constant;
+            try {
+                constant = type.parse(values[i]);
+            } catch (IllegalArgumentException e) {
+                // It may still hold a replacement key that isn't shaped like a placeholder (e.g. <x>), so it's parsed again once rendered
+                String error = "'" + values[i] + "' is not a valid " + type.getName() + " for parameter '" + parameterName(actionType, i) + "'"
+                        + (e.getMessage() == null ? "" : " (" + e.getMessage() + ")");
+                Bukkit.getLogger().warning("ActionType '" + actionType.getName() + "': " + error + ", it will be parsed again when executed");
+                continue;
+            }
+            constants[i] = constant;
+        }
+        return new ParameterList(values, templates, types, constants);
+    }
+
+    /**
+     * Retrieves a parameter as a typed value.
+     * Constant parameters of a matching declared type are returned as parsed when the actions were compiled,
+     * other parameters are rendered with the replacements and PlaceholderAPI, then parsed.
+     *
+     * @param index        the index of the parameter.
+     * @param type         the type to parse the parameter as.
+     * @param player       the player to parse PlaceholderAPI placeholders for, can be null.
+     * @param replacements the custom replacements.
+     * @param <T>          the type of the value.
+     * @return the parsed value.
+     * @throws IllegalArgumentException if the rendered parameter is not valid for the type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(int index, @NotNull ParameterType<T> type, @Nullable Player player, @NotNull Map<String, String> replacements) {
+        if (constants != null && types[index] == type && constants[index] != UNRESOLVED)
+            return (T) constants[index];
+        return type.parse(templates[index].render(player, replacements));
+    }
+
+    @Override
+    public String get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * @param index the index of the parameter.
+     * @return the pre-parsed template of the parameter at the index.
+     */
+    public PlaceholderTemplate getTemplate(int index) {
+        return templates[index];
+    }
+
+    // Any of these may be part of a placeholder or a replacement key, so the value is only known once rendered
+    private static boolean mayContainPlaceholders(String value) {
+        return value.indexOf('%') != -1 || value.indexOf('{') != -1 || value.indexOf('}') != -1;
+    }
+
+    private static String parameterName(ActionType actionType, int index) {
+        List<String> parameters = actionType.getParameters();
+        if (index < parameters.size())
+            return parameters.get(index);
+        List<String> optionalParameters = actionType.getOptionalParameters();
+        int optionalIndex = index - parameters.size();
+        return optionalIndex < optionalParameters.size() ? optionalParameters.get(optionalIndex) : String.valueOf(index);
+    }
+}
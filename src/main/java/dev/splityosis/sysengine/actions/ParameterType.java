@@ -0,0 +1,38 @@
+package dev.splityosis.sysengine.actions;
+
+/**
+ * The type of an action parameter, see {@link ActionType#getParameterTypes()}.
+ * <p>
+ * Parameters without placeholders are parsed once when the actions are compiled, so invalid values are reported
+ * at load time and valid ones are reused by every execution. Parameters with placeholders are parsed after
+ * rendering, on every execution. Built-in types can be found in {@link ParameterTypes}.
+ *
+ * @param <T> the type of the parsed value.
+ */
+public interface ParameterType<T> {
+
+    /**
+     * @return the name of this type, used in error messages (e.g. "number").
+     */
+    String getName();
+
+    /**
+     * Parses a rendered parameter.
+     *
+     * @param value the rendered parameter.
+     * @return the parsed value.
+     * @throws IllegalArgumentException if the value is not valid for this type.
+     */
+    T parse(String value) throws IllegalArgumentException;
+
+    /**
+     * Whether a constant value can be parsed once and reused by every execution.
+     * Types whose values can change while the server runs (e.g. worlds, which can be unloaded) are only validated
+     * at load time, with a warning instead of an error, and parsed again on every execution.
+     *
+     * @return {@code true} by default.
+     */
+    default boolean isCacheable() {
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package dev.splityosis.sysengine.actions;
+
+import com.cryptomorin.xseries.XSound;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.util.function.Function;
+
+/**
+ * Built-in {@link ParameterType}s.
+ */
+public final class ParameterTypes {
+
+    private ParameterTypes() {}
+
+    /**
+     * A string template, the rendered text as is.
+     */
+    public static final ParameterType<String> STRING = of("text", value -> value);
+
+    public static final ParameterType<Integer> INTEGER = of("whole number", value -> Integer.parseInt(value.trim()));
+
+    public static final ParameterType<Double> DOUBLE = of("number", value -> Double.parseDouble(value.trim()));
+
+    public static final ParameterType<Float> FLOAT = of("number", value -> Float.parseFloat(value.trim()));
+
+    /**
+     * A supported sound, matched through {@link XSound#matchXSound(String)}.
+     */
+    public static final ParameterType<XSound> SOUND = of("sound", value -> {
+        XSound sound = XSound.matchXSound(value.trim().toUpperCase()).orElse(null);
+        if (sound == null)
+            throw new IllegalArgumentException("Invalid sound: " + value);
+        if (!sound.isSupported())
+            throw new IllegalArgumentException("Unsupported sound: " + value);
+        return sound;
+    });
+
+    /**
+     * A loaded world, looked up by name on every execution since worlds can be unloaded.
+     */
+    public static final ParameterType<World> WORLD = new ParameterType<World>() {
+        @Override
+        public String getName() {
+            return "world";
+        }
+
+        @Override
+        public World parse(String value) {
+            World world = Bukkit.getWorld(value.trim());
+            if (world == null)
+                throw new IllegalArgumentException("Unknown world: " + value);
+            return world;
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return false;
+        }
+    };
+
+    private static <T> ParameterType<T> of(String name, Function<String, T> parser) {
+        return new ParameterType<T>() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public T parse(String value) {
+                return parser.apply(value);
+            }
+        };
+    }
+}
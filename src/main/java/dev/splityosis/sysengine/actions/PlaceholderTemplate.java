@@ -0,0 +1,295 @@
+package dev.splityosis.sysengine.actions;
+
+import dev.splityosis.sysengine.utils.PapiUtil;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A parameter string that was split once into literal segments and {@code %placeholder%} slots.
+ * <p>
+ * Rendering resolves every slot against the replacements map with a single lookup and writes the result
+ * into one {@link StringBuilder}, instead of running a full {@link String#replace} pass per replacement.
+ * PlaceholderAPI is only invoked if the rendered text still contains a {@code %}.
+ * <p>
+ * Replacement keys that are not shaped like {@code %key%} are still supported, they are matched
+ * while copying the literal segments.
+ * <p>
+ * If a replacement value contains another replacement key, the replacements are applied one after another in
+ * the map's order instead, like they always were, so the value's keys are expanded as well.
+ */
+public final class PlaceholderTemplate {
+
+    private final String source;
+    private final String[] segments;
+    private final boolean[] slots;
+    private final boolean hasSlots;
+
+    private PlaceholderTemplate(String source, String[] segments, boolean[] slots, boolean hasSlots) {
+        this.source = source;
+        this.segments = segments;
+        this.slots = slots;
+        this.hasSlots = hasSlots;
+    }
+
+    /**
+     * Parses a string into a template.
+     *
+     * @param source the raw parameter string.
+     * @return the parsed template.
+     */
+    public static PlaceholderTemplate parse(@NotNull String source) {
+        List<String> segments = new ArrayList<>();
+        List<Boolean> slots = new ArrayList<>();
+
+        int length = source.length();
+        int literalStart = 0;
+        int i = 0;
+        while (i < length) {
+            if (source.charAt(i) != '%') {
+                i++;
+                continue;
+            }
+
+            int end = findSlotEnd(source, i);
+            if (end == -1) {
+                i++;
+                continue;
+            }
+
+            if (literalStart < i) {
+                segments.add(source.substring(literalStart, i));
+                slots.add(false);
+            }
+            segments.add(source.substring(i, end + 1));
+            slots.add(true);
+            i = end + 1;
+            literalStart = i;
+        }
+
+        if (literalStart < length || segments.isEmpty()) {
+            segments.add(source.substring(literalStart));
+            slots.add(false);
+        }
+
+        boolean[] slotArray = new boolean[slots.size()];
+        boolean hasSlots = false;
+        for (int j = 0; j < slotArray.length; j++) {
+            slotArray[j] = slots.get(j);
+            hasSlots |= slotArray[j];
+        }
+        return new PlaceholderTemplate(source, segments.toArray(new String[0]), slotArray, hasSlots);
+    }
+
+    /**
+     * Renders this template with the replacements and parses PlaceholderAPI placeholders.
+     *
+     * @param player       the player to parse PlaceholderAPI placeholders for, can be null.
+     * @param replacements the custom replacements.
+     * @return the rendered string.
+     */
+    public String render(@Nullable Player player, @NotNull Map<String, String> replacements) {
+        return render(player, replacements, true);
+    }
+
+    /**
+     * Renders this template with the replacements.
+     *
+     * @param player       the player to parse PlaceholderAPI placeholders for, can be null.
+     * @param replacements the custom replacements.
+     * @param parsePapi    whether PlaceholderAPI placeholders should be parsed after replacing.
+     * @return the rendered string.
+     */
+    public String render(@Nullable Player player, @NotNull Map<String, String> replacements, boolean parsePapi) {
+        replacements = CopyOnWriteReplacements.unwrap(replacements);
+        List<String> looseKeys = looseKeys(replacements);
+        return render(player, replacements, looseKeys, isChained(replacements, looseKeys), parsePapi);
+    }
+
+    String render(@Nullable Player player, Map<String, String> replacements, List<String> looseKeys, boolean chained, boolean parsePapi) {
+        String result;
+        if (replacements.isEmpty() || (!hasSlots && looseKeys.isEmpty() && !chained))
+            result = source;
+        else if (chained)
+            result = renderChained(replacements);
+        else {
+            StringBuilder builder = new StringBuilder(source.length() + 16);
+            for (int i = 0; i < segments.length; i++) {
+                if (slots[i]) {
+                    String value = replacements.get(segments[i]);
+                    if (value != null) {
+                        builder.append(value);
+                        continue;
+                    }
+                }
+                appendLiteral(builder, segments[i], replacements, looseKeys);
+            }
+            result = builder.toString();
+        }
+
+        if (parsePapi && result.indexOf('%') != -1)
+            return PapiUtil.parsePlaceholders(player, result);
+        return result;
+    }
+
+    /**
+     * Renders every string of the list, reusing the pre-parsed templates if the list is a {@link ParameterList}.
+     * PlaceholderAPI placeholders of all the strings are resolved in one {@link PapiUtil#parsePlaceholdersBatch} call.
+     *
+     * @param player       the player to parse PlaceholderAPI placeholders for, can be null.
+     * @param lst          the strings to render.
+     * @param replacements the custom replacements.
+     * @return a new list of rendered strings.
+     */
+    public static List<String> renderAll(@Nullable Player player, @NotNull List<String> lst, @NotNull Map<String, String> replacements) {
+        replacements = CopyOnWriteReplacements.unwrap(replacements);
+        List<String> looseKeys = looseKeys(replacements);
+        boolean chained = isChained(replacements, looseKeys);
+        List<String> rendered = new ArrayList<>(lst.size());
+
+        if (lst instanceof ParameterList) {
+            ParameterList parameterList = (ParameterList) lst;
+            for (int i = 0; i < parameterList.size(); i++)
+                rendered.add(parameterList.getTemplate(i).render(player, replacements, looseKeys, chained, false));
+        }
+        else {
+            for (String string : lst)
+                rendered.add(string == null ? null : parse(string).render(player, replacements, looseKeys, chained, false));
+        }
+
+        return PapiUtil.parsePlaceholdersBatch(player, rendered);
+    }
+
+    /**
+     * @return the string this template was parsed from.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return whether this template contains any {@code %placeholder%} slots.
+     */
+    public boolean hasSlots() {
+        return hasSlots;
+    }
+
+    int getSegmentCount() {
+        return segments.length;
+    }
+
+    String getSegment(int index) {
+        return segments[index];
+    }
+
+    boolean isSlot(int index) {
+        return slots[index];
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private static void appendLiteral(StringBuilder builder, String literal, Map<String, String> replacements, List<String> looseKeys) {
+        if (looseKeys.isEmpty()) {
+            builder.append(literal);
+            return;
+        }
+
+        ReplacementSet replacementSet = replacements instanceof ReplacementSet ? (ReplacementSet) replacements : null;
+        int length = literal.length();
+        int i = 0;
+        outer:
+        while (i < length) {
+            if (replacementSet != null && !replacementSet.mayStartLooseKey(literal.charAt(i))) {
+                builder.append(literal.charAt(i++));
+                continue;
+            }
+            for (String key : looseKeys) {
+                if (literal.startsWith(key, i)) {
+                    builder.append(replacements.get(key));
+                    i += key.length();
+                    continue outer;
+                }
+            }
+            builder.append(literal.charAt(i++));
+        }
+    }
+
+    // Applies the replacements one after another, a value containing a later key gets that key replaced too
+    private String renderChained(Map<String, String> replacements) {
+        String result = source;
+        for (Map.Entry<String, String> entry : replacements.entrySet()) {
+            String key = entry.getKey();
+            if (key != null && !key.isEmpty() && entry.getValue() != null)
+                result = result.replace(key, entry.getValue());
+        }
+        return result;
+    }
+
+    // Whether a replacement value contains another key, which a single pass wouldn't expand
+    private static boolean isChained(Map<String, String> replacements, List<String> looseKeys) {
+        if (replacements instanceof ReplacementSet)
+            return ((ReplacementSet) replacements).isChained();
+        if (replacements.size() < 2)
+            return false;
+        for (Map.Entry<String, String> entry : replacements.entrySet()) {
+            String value = entry.getValue();
+            // Without loose keys every key is a %slot%, so only values with a '%' can hold one
+            if (value == null || (looseKeys.isEmpty() && value.indexOf('%') == -1))
+                continue;
+            for (String key : replacements.keySet())
+                if (key != null && !key.isEmpty() && !key.equals(entry.getKey()) && value.contains(key))
+                    return true;
+        }
+        return false;
+    }
+
+    static boolean isChained(String[] keys, String[] values, boolean hasLooseKeys) {
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i];
+            if (!hasLooseKeys && value.indexOf('%') == -1)
+                continue;
+            for (int j = 0; j < keys.length; j++)
+                if (j != i && value.contains(keys[j]))
+                    return true;
+        }
+        return false;
+    }
+
+    // Keys that can't be resolved through a slot lookup and need to be matched inside literals
+    private static List<String> looseKeys(Map<String, String> replacements) {
+        if (replacements instanceof ReplacementSet)
+            return ((ReplacementSet) replacements).getLooseKeys();
+        List<String> looseKeys = null;
+        for (Map.Entry<String, String> entry : replacements.entrySet()) {
+            String key = entry.getKey();
+            if (key == null || key.isEmpty() || entry.getValue() == null || isSlotKey(key))
+                continue;
+            if (looseKeys == null)
+                looseKeys = new ArrayList<>(2);
+            looseKeys.add(key);
+        }
+        return looseKeys == null ? Collections.emptyList() : looseKeys;
+    }
+
+    static boolean isSlotKey(String key) {
+        return key.length() >= 3 && key.charAt(0) == '%' && findSlotEnd(key, 0) == key.length() - 1;
+    }
+
+    // Returns the index of the closing '%' of a slot opened at 'start', or -1 if it isn't one
+    private static int findSlotEnd(String string, int start) {
+        int length = string.length();
+        for (int i = start + 1; i < length; i++) {
+            char c = string.charAt(i);
+            if (c == '%')
+                return i == start + 1 ? -1 : i;
+            if (Character.isWhitespace(c))
+                return -1;
+        }
+        return -1;
+    }
+}
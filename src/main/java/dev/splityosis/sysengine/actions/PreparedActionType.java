@@ -0,0 +1,35 @@
+package dev.splityosis.sysengine.actions;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@link ActionType} whose work is split into a preparation phase, which renders placeholders,
+ * colorizes and parses parameters, and a side effect that touches the server.
+ * <p>
+ * Implementations only need to implement {@link #prepare}, a regular {@link #execute} prepares and
+ * applies the side effect right away.
+ */
+public interface PreparedActionType extends ActionType {
+
+    /**
+     * Prepares this action. This must not touch the server state, so it can be called off the main thread.
+     *
+     * @return the side effect to run on the main thread, or {@code null} if there's nothing to do.
+     */
+    @Override
+    @Nullable
+    Runnable prepare(@Nullable Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements)
+            throws IllegalArgumentException;
+
+    @Override
+    default void execute(@Nullable Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements)
+            throws IllegalArgumentException {
+        Runnable sideEffect = prepare(target, params, replacements);
+        if (sideEffect != null)
+            sideEffect.run();
+    }
+}
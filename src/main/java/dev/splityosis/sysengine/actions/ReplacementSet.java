@@ -0,0 +1,312 @@
+package dev.splityosis.sysengine.actions;
+
+import java.util.*;
+
+/**
+ * An immutable set of placeholder replacements, backed by parallel key and value arrays.
+ * <p>
+ * It is meant to be created once and reused across many executions, e.g. as a constant for an action trigger.
+ * It implements {@link Map} so it can be passed anywhere replacements are accepted, including {@link ActionType#execute}.
+ * Lookups first check a precomputed filter of the keys' first characters, so most misses never compare a key,
+ * and {@link PlaceholderTemplate} reuses the precomputed list of keys that must be matched inside literals.
+ * <p>
+ * Null or empty keys and null values are ignored, if a key is given twice the last value wins.
+ */
+public final class ReplacementSet extends AbstractMap<String, String> {
+
+    /**
+     * A replacement set with no replacements.
+     */
+    public static final ReplacementSet EMPTY = new ReplacementSet(new String[0], new String[0]);
+
+    // Above this size lookups go through a hash index instead of a linear scan
+    private static final int INDEX_THRESHOLD = 8;
+
+    private final String[] keys;
+    private final String[] values;
+    // Bit filters of the ASCII first characters of the keys, and of the loose keys
+    private final long firstChars0, firstChars1;
+    private final long looseFirstChars0, looseFirstChars1;
+    private final boolean hasNonAsciiFirstChar;
+    private final boolean hasNonAsciiLooseFirstChar;
+    private final List<String> looseKeys;
+    private final boolean isChained;
+    private final Map<String, String> index;
+    private Set<Entry<String, String>> entrySet;
+
+    private ReplacementSet(String[] keys, String[] values) {
+        this(keys, values, keys.length > INDEX_THRESHOLD ? indexOf(keys, values) : null);
+    }
+
+    // The keys must be valid and unique, the index is only given above the threshold
+    private ReplacementSet(String[] keys, String[] values, Map<String, String> index) {
+        this.keys = keys;
+        this.values = values;
+        this.index = index;
+
+        long firstChars0 = 0, firstChars1 = 0, looseFirstChars0 = 0, looseFirstChars1 = 0;
+        boolean hasNonAsciiFirstChar = false, hasNonAsciiLooseFirstChar = false;
+        List<String> looseKeys = null;
+        for (String key : keys) {
+            char first = key.charAt(0);
+            if (first < 64)
+                firstChars0 |= 1L << first;
+            else if (first < 128)
+                firstChars1 |= 1L << first;
+            else
+                hasNonAsciiFirstChar = true;
+
+            if (PlaceholderTemplate.isSlotKey(key))
+                continue;
+            if (looseKeys == null)
+                looseKeys = new ArrayList<>(2);
+            looseKeys.add(key);
+            if (first < 64)
+                looseFirstChars0 |= 1L << first;
+            else if (first < 128)
+                looseFirstChars1 |= 1L << first;
+            else
+                hasNonAsciiLooseFirstChar = true;
+        }
+        this.firstChars0 = firstChars0;
+        this.firstChars1 = firstChars1;
+        this.looseFirstChars0 = looseFirstChars0;
+        this.looseFirstChars1 = looseFirstChars1;
+        this.hasNonAsciiFirstChar = hasNonAsciiFirstChar;
+        this.hasNonAsciiLooseFirstChar = hasNonAsciiLooseFirstChar;
+        this.looseKeys = looseKeys == null ? Collections.emptyList() : Collections.unmodifiableList(looseKeys);
+        this.isChained = PlaceholderTemplate.isChained(keys, values, looseKeys != null);
+    }
+
+    private static Map<String, String> indexOf(String[] keys, String[] values) {
+        Map<String, String> index = new HashMap<>(keys.length * 2);
+        for (int i = 0; i < keys.length; i++)
+            index.put(keys[i], values[i]);
+        return index;
+    }
+
+    /**
+     * Creates a replacement set from key value pairs.
+     *
+     * @param replacements an array where even indices are keys and odd indices are values.
+     * @return the replacement set.
+     * @throws IllegalArgumentException if a key has no value.
+     */
+    public static ReplacementSet of(String... replacements) {
+        if (replacements == null || replacements.length == 0)
+            return EMPTY;
+        if (replacements.length % 2 != 0)
+            throw new IllegalArgumentException("Replacements must come in pairs of key and value, got " + replacements.length + " strings");
+
+        // Distinct keys with values, the usual case, go straight into the arrays
+        int size = replacements.length / 2;
+        String[] keys = new String[size];
+        String[] values = new String[size];
+        Map<String, String> index = size > INDEX_THRESHOLD ? new HashMap<>(size * 2) : null;
+        for (int i = 0; i < size; i++) {
+            String key = replacements[i * 2];
+            String value = replacements[i * 2 + 1];
+            if (key == null || key.isEmpty() || value == null)
+                return ofPairs(replacements);
+            if (index == null ? indexOf(keys, i, key) != -1 : index.put(key, value) != null)
+                return ofPairs(replacements);
+            keys[i] = key;
+            values[i] = value;
+        }
+        return new ReplacementSet(keys, values, index);
+    }
+
+    private static ReplacementSet ofPairs(String[] replacements) {
+        Builder builder = new Builder();
+        for (int i = 0; i < replacements.length; i += 2)
+            builder.add(replacements[i], replacements[i + 1]);
+        return builder.build();
+    }
+
+    private static int indexOf(String[] keys, int size, String key) {
+        for (int i = 0; i < size; i++)
+            if (keys[i].equals(key))
+                return i;
+        return -1;
+    }
+
+    /**
+     * Creates a replacement set from a map, or returns it if it already is one.
+     *
+     * @param replacements the replacements.
+     * @return the replacement set.
+     */
+    public static ReplacementSet of(Map<String, String> replacements) {
+        if (replacements == null || replacements.isEmpty())
+            return EMPTY;
+        if (replacements instanceof ReplacementSet)
+            return (ReplacementSet) replacements;
+
+        Builder builder = new Builder();
+        for (Entry<String, String> entry : replacements.entrySet())
+            builder.add(entry.getKey(), entry.getValue());
+        return builder.build();
+    }
+
+    /**
+     * @return a new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a copy of this set with an added or replaced replacement.
+     *
+     * @param key   the placeholder.
+     * @param value the replacement.
+     * @return the new replacement set.
+     */
+    public ReplacementSet with(String key, String value) {
+        if (key == null || key.isEmpty())
+            return this;
+        int existing = indexOf(keys, keys.length, key);
+        if (value == null) {
+            if (existing == -1)
+                return this;
+            String[] newKeys = new String[keys.length - 1];
+            String[] newValues = new String[keys.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, existing);
+            System.arraycopy(values, 0, newValues, 0, existing);
+            System.arraycopy(keys, existing + 1, newKeys, existing, newKeys.length - existing);
+            System.arraycopy(values, existing + 1, newValues, existing, newValues.length - existing);
+            return newKeys.length == 0 ? EMPTY : new ReplacementSet(newKeys, newValues);
+        }
+
+        String[] newKeys = existing == -1 ? Arrays.copyOf(keys, keys.length + 1) : keys;
+        String[] newValues = Arrays.copyOf(values, newKeys.length);
+        if (existing == -1) {
+            newKeys[keys.length] = key;
+            newValues[keys.length] = value;
+        }
+        else
+            newValues[existing] = value;
+        return new ReplacementSet(newKeys, newValues);
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String))
+            return null;
+        String string = (String) key;
+        if (string.isEmpty() || !mayStartWith(string.charAt(0), firstChars0, firstChars1, hasNonAsciiFirstChar))
+            return null;
+        if (index != null)
+            return index.get(string);
+
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i].equals(string))
+                return values[i];
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String))
+            return false;
+        String string = (String) key;
+        if (string.isEmpty() || !mayStartWith(string.charAt(0), firstChars0, firstChars1, hasNonAsciiFirstChar))
+            return false;
+        if (index != null)
+            return index.containsKey(string);
+
+        for (String k : keys)
+            if (k.equals(string))
+                return true;
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        Set<Entry<String, String>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            Set<Entry<String, String>> entries = new LinkedHashSet<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++)
+                entries.add(new SimpleImmutableEntry<>(keys[i], values[i]));
+            entrySet = Collections.unmodifiableSet(entries);
+            this.entrySet = entrySet;
+        }
+        return entrySet;
+    }
+
+    /**
+     * @return the keys that are not shaped like {@code %key%} and need to be matched inside literals.
+     */
+    List<String> getLooseKeys() {
+        return looseKeys;
+    }
+
+    /**
+     * @return whether a value contains another key, see {@link PlaceholderTemplate}.
+     */
+    boolean isChained() {
+        return isChained;
+    }
+
+    /**
+     * @return whether a loose key may start with the given character.
+     */
+    boolean mayStartLooseKey(char c) {
+        return mayStartWith(c, looseFirstChars0, looseFirstChars1, hasNonAsciiLooseFirstChar);
+    }
+
+    private static boolean mayStartWith(char c, long filter0, long filter1, boolean nonAscii) {
+        if (c < 64)
+            return (filter0 & (1L << c)) != 0;
+        if (c < 128)
+            return (filter1 & (1L << c)) != 0;
+        return nonAscii;
+    }
+
+    /**
+     * Builds a {@link ReplacementSet}.
+     */
+    public static final class Builder {
+
+        private final Map<String, String> replacements = new LinkedHashMap<>();
+
+        private Builder() {}
+
+        /**
+         * Adds a replacement, replacing the value of an already added key.
+         * A null value removes the key.
+         *
+         * @param key   the placeholder.
+         * @param value the replacement.
+         * @return this builder.
+         */
+        public Builder add(String key, String value) {
+            if (key == null || key.isEmpty())
+                return this;
+            if (value == null)
+                replacements.remove(key);
+            else
+                replacements.put(key, value);
+            return this;
+        }
+
+        /**
+         * @return the built replacement set.
+         */
+        public ReplacementSet build() {
+            if (replacements.isEmpty())
+                return EMPTY;
+            return new ReplacementSet(replacements.keySet().toArray(new String[0]), replacements.values().toArray(new String[0]));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.CommandDispatcher;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -9,7 +10,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class ConsoleCommandActionType implements ActionType {
+public class ConsoleCommandActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -37,9 +38,9 @@ public class ConsoleCommandActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
         params = applyPlaceholders(target instanceof Player ? (Player) target: null, params, replacements);
         String command = params.get(0);
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+        return () -> CommandDispatcher.dispatch(Bukkit.getConsoleSender(), command);
     }
-}
\ No newline at end of file
+}
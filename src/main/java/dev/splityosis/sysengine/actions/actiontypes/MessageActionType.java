@@ -1,6 +1,6 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import dev.splityosis.sysengine.utils.ColorUtil;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -10,7 +10,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class MessageActionType implements ActionType {
+public class MessageActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -38,11 +38,12 @@ public class MessageActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) throws IllegalArgumentException {
-        if (target == null) return;
-        if (! (target instanceof CommandSender)) return;
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) throws IllegalArgumentException {
+        if (target == null) return null;
+        if (! (target instanceof CommandSender)) return null;
         CommandSender commandSender = (CommandSender) target;
         params = applyPlaceholders(target instanceof Player ? (Player) target : null, params, replacements);
-        commandSender.sendMessage(ColorUtil.colorize(params.get(0)));
+        String message = ColorUtil.colorize(params.get(0));
+        return () -> commandSender.sendMessage(message);
     }
 }
@@ -1,16 +1,18 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
-import dev.splityosis.sysengine.actions.ActionType;
-import dev.splityosis.sysengine.utils.ColorUtil;
+import dev.splityosis.sysengine.actions.AudienceFanOut;
+import dev.splityosis.sysengine.actions.AudienceFanOut.AudienceText;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.event.server.BroadcastMessageEvent;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
-public class MessageAllActionType implements ActionType {
+public class MessageAllActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -38,13 +40,37 @@ public class MessageAllActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-        if (target instanceof Player)
-            params = applyPlaceholders((Player) target, params, replacements);
-        else
-            params = applyPlaceholders(null, params, replacements);
-
-        String message = ColorUtil.colorize(params.get(0));
-        Bukkit.broadcastMessage(message);
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+        AudienceText message = AudienceText.of(params, 0, target instanceof Player ? (Player) target : null, replacements);
+        if (message.isShared()) {
+            String text = message.getShared();
+            return () -> Bukkit.broadcastMessage(text);
+        }
+
+        // Only the per-recipient text is fanned out, to the audience a broadcast reaches, which listeners still see
+        return () -> {
+            Set<CommandSender> recipients = new LinkedHashSet<>();
+            recipients.add(Bukkit.getConsoleSender());
+            for (Player player : Bukkit.getOnlinePlayers())
+                if (player.hasPermission(Server.BROADCAST_CHANNEL_USERS))
+                    recipients.add(player);
+
+            String shared = message.getShared();
+            BroadcastMessageEvent event = new BroadcastMessageEvent(!Bukkit.isPrimaryThread(), shared, recipients);
+            Bukkit.getPluginManager().callEvent(event);
+            if (event.isCancelled())
+                return;
+
+            // A listener that rewrote the message decides what everyone gets
+            boolean rewritten = !shared.equals(event.getMessage());
+            List<Player> players = new ArrayList<>();
+            for (CommandSender recipient : event.getRecipients()) {
+                if (recipient instanceof Player && !rewritten)
+                    players.add((Player) recipient);
+                else
+                    recipient.sendMessage(event.getMessage());
+            }
+            AudienceFanOut.forEach(players, player -> player.sendMessage(message.forPlayer(player)));
+        };
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import dev.splityosis.sysengine.utils.ColorUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
@@ -11,7 +11,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class MessagePlayerActionType implements ActionType {
+public class MessagePlayerActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -39,12 +39,15 @@ public class MessagePlayerActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) throws IllegalArgumentException {
-        Player player = Bukkit.getPlayer(params.get(0));
-        if (player == null) return;
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) throws IllegalArgumentException {
+        String playerName = params.get(0);
         CommandSender commandSender = (CommandSender) target;
         params = applyPlaceholders(target instanceof Player ? (Player) target : null, params, replacements);
-        commandSender.sendMessage(ColorUtil.colorize(params.get(1)));
+        String message = ColorUtil.colorize(params.get(1));
+        return () -> {
+            Player player = Bukkit.getPlayer(playerName);
+            if (player == null) return;
+            commandSender.sendMessage(message);
+        };
     }
-
 }
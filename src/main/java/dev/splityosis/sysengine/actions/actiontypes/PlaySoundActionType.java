@@ -1,7 +1,9 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
 import com.cryptomorin.xseries.XSound;
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.ParameterType;
+import dev.splityosis.sysengine.actions.ParameterTypes;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import org.bukkit.Bukkit;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
@@ -11,7 +13,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class PlaySoundActionType implements ActionType {
+public class PlaySoundActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -39,22 +41,24 @@ public class PlaySoundActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-        if (!(target instanceof Player)) return;
+    public List<ParameterType<?>> getParameterTypes() {
+        return Arrays.asList(ParameterTypes.SOUND, ParameterTypes.FLOAT, ParameterTypes.FLOAT);
+    }
+
+    @Override
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+        if (!(target instanceof Player)) return null;
         Player player = (Player) target;
 
-        params = applyPlaceholders(player, params, replacements);
-        XSound sound = XSound.matchXSound(params.get(0).toUpperCase()).orElse(null);
-        if (sound == null) {
-            Bukkit.getLogger().warning("Invalid sound: " + params.get(0));
-            return;
-        }
-        if (!sound.isSupported()) {
-            Bukkit.getLogger().warning("Unsupported sound: " + params.get(0));
-            return;
+        XSound sound;
+        try {
+            sound = getParameter(params, 0, ParameterTypes.SOUND, player, replacements);
+        } catch (IllegalArgumentException e) {
+            Bukkit.getLogger().warning(e.getMessage());
+            return null;
         }
-        float volume = params.size() > 1 ? Float.parseFloat(params.get(1)) : 1.0f;
-        float pitch = params.size() > 2 ? Float.parseFloat(params.get(2)) : 1.0f;
-        sound.play(player, volume, pitch);
+        float volume = params.size() > 1 ? getParameter(params, 1, ParameterTypes.FLOAT, player, replacements) : 1.0f;
+        float pitch = params.size() > 2 ? getParameter(params, 2, ParameterTypes.FLOAT, player, replacements) : 1.0f;
+        return () -> sound.play(player, volume, pitch);
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,18 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
 import com.cryptomorin.xseries.XSound;
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.AudienceFanOut;
+import dev.splityosis.sysengine.actions.ParameterType;
+import dev.splityosis.sysengine.actions.ParameterTypes;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class PlaySoundAllActionType implements ActionType {
+public class PlaySoundAllActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -38,21 +40,22 @@ public class PlaySoundAllActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-        params = applyPlaceholders(null, params, replacements);
-        XSound sound = XSound.matchXSound(params.get(0).toUpperCase()).orElse(null);
-        if (sound == null) {
-            Bukkit.getLogger().warning("Invalid sound: " + params.get(0));
-            return;
-        }
-        if (!sound.isSupported()) {
-            Bukkit.getLogger().warning("Unsupported sound: " + params.get(0));
-            return;
+    public List<ParameterType<?>> getParameterTypes() {
+        return Arrays.asList(ParameterTypes.SOUND, ParameterTypes.FLOAT, ParameterTypes.FLOAT);
+    }
+
+    @Override
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+        XSound sound;
+        try {
+            sound = getParameter(params, 0, ParameterTypes.SOUND, null, replacements);
+        } catch (IllegalArgumentException e) {
+            Bukkit.getLogger().warning(e.getMessage());
+            return null;
         }
-        float volume = params.size() > 1 ? Float.parseFloat(params.get(1)) : 1.0f;
-        float pitch = params.size() > 2 ? Float.parseFloat(params.get(2)) : 1.0f;
+        float volume = params.size() > 1 ? getParameter(params, 1, ParameterTypes.FLOAT, null, replacements) : 1.0f;
+        float pitch = params.size() > 2 ? getParameter(params, 2, ParameterTypes.FLOAT, null, replacements) : 1.0f;
 
-        for (Player player : Bukkit.getOnlinePlayers())
-            sound.play(player, volume, pitch);
+        return () -> AudienceFanOut.forEachOnlinePlayer(player -> sound.play(player, volume, pitch));
     }
-}
\ No newline at end of file
+}
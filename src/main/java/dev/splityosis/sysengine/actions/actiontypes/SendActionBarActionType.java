@@ -1,7 +1,7 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
 import com.cryptomorin.xseries.messages.ActionBar;
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import dev.splityosis.sysengine.utils.ColorUtil;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -10,7 +10,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class SendActionBarActionType implements ActionType {
+public class SendActionBarActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -38,11 +38,12 @@ public class SendActionBarActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-        if (!(target instanceof Player)) return;
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+        if (!(target instanceof Player)) return null;
         Player player = (Player) target;
 
         params = applyPlaceholders(player, params, replacements);
         String message = ColorUtil.colorize(params.get(0));
-        ActionBar.sendActionBar(player, ColorUtil.colorize(message));    }
-}
\ No newline at end of file
+        return () -> ActionBar.sendActionBar(player, message);
+    }
+}
@@ -1,17 +1,16 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
 import com.cryptomorin.xseries.messages.ActionBar;
-import dev.splityosis.sysengine.actions.ActionType;
-import dev.splityosis.sysengine.utils.ColorUtil;
-import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
+import dev.splityosis.sysengine.actions.AudienceFanOut;
+import dev.splityosis.sysengine.actions.AudienceFanOut.AudienceText;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class SendActionBarAllActionType implements ActionType {
+public class SendActionBarAllActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -39,11 +38,9 @@ public class SendActionBarAllActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-        params = applyPlaceholders(null, params, replacements);
-        String message = ColorUtil.colorize(params.get(0));
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+        AudienceText message = AudienceText.of(params, 0, null, replacements);
 
-        for (Player player : Bukkit.getOnlinePlayers())
-            ActionBar.sendActionBar(player, ColorUtil.colorize(message));
+        return () -> AudienceFanOut.forEachOnlinePlayer(player -> ActionBar.sendActionBar(player, message.forPlayer(player)));
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
 import com.cryptomorin.xseries.messages.Titles;
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.ParameterType;
+import dev.splityosis.sysengine.actions.ParameterTypes;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import dev.splityosis.sysengine.utils.ColorUtil;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -10,7 +12,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class SendTitleActionType implements ActionType {
+public class SendTitleActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -38,17 +40,21 @@ public class SendTitleActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-        if (!(target instanceof Player)) return;
+    public List<ParameterType<?>> getParameterTypes() {
+        return Arrays.asList(ParameterTypes.STRING, ParameterTypes.STRING, ParameterTypes.INTEGER, ParameterTypes.INTEGER, ParameterTypes.INTEGER);
+    }
+
+    @Override
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+        if (!(target instanceof Player)) return null;
         Player player = (Player) target;
 
-        params = applyPlaceholders(player, params, replacements);
-        String title = ColorUtil.colorize(params.get(0));
-        String subtitle = params.size() > 1 ? ColorUtil.colorize(params.get(1)) : null;
-        int fadeIn = params.size() > 2 ? Integer.parseInt(params.get(2)) : 10;
-        int stay = params.size() > 3 ? Integer.parseInt(params.get(3)) : 70;
-        int fadeOut = params.size() > 4 ? Integer.parseInt(params.get(4)) : 20;
+        String title = ColorUtil.colorize(getParameter(params, 0, ParameterTypes.STRING, player, replacements));
+        String subtitle = params.size() > 1 ? ColorUtil.colorize(getParameter(params, 1, ParameterTypes.STRING, player, replacements)) : null;
+        int fadeIn = params.size() > 2 ? getParameter(params, 2, ParameterTypes.INTEGER, player, replacements) : 10;
+        int stay = params.size() > 3 ? getParameter(params, 3, ParameterTypes.INTEGER, player, replacements) : 70;
+        int fadeOut = params.size() > 4 ? getParameter(params, 4, ParameterTypes.INTEGER, player, replacements) : 20;
 
-        Titles.sendTitle(player, fadeIn, stay, fadeOut, ColorUtil.colorize(title), ColorUtil.colorize(subtitle));
+        return () -> Titles.sendTitle(player, fadeIn, stay, fadeOut, title, subtitle);
     }
-}
\ No newline at end of file
+}
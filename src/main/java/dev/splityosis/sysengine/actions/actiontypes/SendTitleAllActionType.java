@@ -1,17 +1,18 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
 import com.cryptomorin.xseries.messages.Titles;
-import dev.splityosis.sysengine.actions.ActionType;
-import dev.splityosis.sysengine.utils.ColorUtil;
-import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
+import dev.splityosis.sysengine.actions.AudienceFanOut;
+import dev.splityosis.sysengine.actions.AudienceFanOut.AudienceText;
+import dev.splityosis.sysengine.actions.ParameterType;
+import dev.splityosis.sysengine.actions.ParameterTypes;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class SendTitleAllActionType implements ActionType {
+public class SendTitleAllActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -39,15 +40,19 @@ public class SendTitleAllActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-        params = applyPlaceholders(null, params, replacements);
-        String title = ColorUtil.colorize(params.get(0));
-        String subtitle = ColorUtil.colorize(params.get(1));
-        int fadeIn = params.size() > 2 ? Integer.parseInt(params.get(2)) : 10;
-        int stay = params.size() > 3 ? Integer.parseInt(params.get(3)) : 70;
-        int fadeOut = params.size() > 4 ? Integer.parseInt(params.get(4)) : 20;
-
-        for (Player player : Bukkit.getOnlinePlayers())
-            Titles.sendTitle(player, fadeIn, stay, fadeOut, ColorUtil.colorize(title), ColorUtil.colorize(subtitle));
+    public List<ParameterType<?>> getParameterTypes() {
+        return Arrays.asList(ParameterTypes.STRING, ParameterTypes.STRING, ParameterTypes.INTEGER, ParameterTypes.INTEGER, ParameterTypes.INTEGER);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+        AudienceText title = AudienceText.of(params, 0, null, replacements);
+        AudienceText subtitle = AudienceText.of(params, 1, null, replacements);
+        int fadeIn = params.size() > 2 ? getParameter(params, 2, ParameterTypes.INTEGER, null, replacements) : 10;
+        int stay = params.size() > 3 ? getParameter(params, 3, ParameterTypes.INTEGER, null, replacements) : 70;
+        int fadeOut = params.size() > 4 ? getParameter(params, 4, ParameterTypes.INTEGER, null, replacements) : 20;
+
+        return () -> AudienceFanOut.forEachOnlinePlayer(player ->
+                Titles.sendTitle(player, fadeIn, stay, fadeOut, title.forPlayer(player), subtitle.forPlayer(player)));
+    }
+}
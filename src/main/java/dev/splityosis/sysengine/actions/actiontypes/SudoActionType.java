@@ -1,6 +1,7 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.CommandDispatcher;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -10,7 +11,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class SudoActionType implements ActionType {
+public class SudoActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -38,12 +39,12 @@ public class SudoActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-        if (!(target instanceof CommandSender)) return;
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+        if (!(target instanceof CommandSender)) return null;
         CommandSender commandSender = (CommandSender) target;
 
         params = applyPlaceholders(commandSender instanceof Player ? (Player) commandSender: null, params, replacements);
         String command = params.get(0);
-        Bukkit.dispatchCommand(commandSender, command);
+        return () -> CommandDispatcher.dispatch(commandSender, command);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.ParameterType;
+import dev.splityosis.sysengine.actions.ParameterTypes;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -11,7 +13,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-public class TeleportActionType implements ActionType {
+public class TeleportActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -39,20 +41,26 @@ public class TeleportActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-        if (!(target instanceof Player)) return;
+    public List<ParameterType<?>> getParameterTypes() {
+        return Arrays.asList(ParameterTypes.STRING, ParameterTypes.DOUBLE, ParameterTypes.DOUBLE, ParameterTypes.DOUBLE, ParameterTypes.FLOAT, ParameterTypes.FLOAT);
+    }
+
+    @Override
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
+        if (!(target instanceof Player)) return null;
         Player player = (Player) target;
 
-        params = applyPlaceholders(player, params, replacements);
-        double x = Double.parseDouble(params.get(1));
-        double y = Double.parseDouble(params.get(2));
-        double z = Double.parseDouble(params.get(3));
-        String worldName = params.get(0);
+        String worldName = getParameter(params, 0, ParameterTypes.STRING, player, replacements);
+        double x = getParameter(params, 1, ParameterTypes.DOUBLE, player, replacements);
+        double y = getParameter(params, 2, ParameterTypes.DOUBLE, player, replacements);
+        double z = getParameter(params, 3, ParameterTypes.DOUBLE, player, replacements);
 
-        float yaw = params.size() > 4 ? Float.parseFloat(params.get(4)) : 0;
-        float pitch = params.size() > 5 ? Float.parseFloat(params.get(5)) : 0;
+        float yaw = params.size() > 4 ? getParameter(params, 4, ParameterTypes.FLOAT, player, replacements) : 0;
+        float pitch = params.size() > 5 ? getParameter(params, 5, ParameterTypes.FLOAT, player, replacements) : 0;
 
-        Location location = new Location(Bukkit.getWorld(worldName), x, y, z, yaw, pitch);
-        player.teleport(location);
+        return () -> {
+            Location location = new Location(Bukkit.getWorld(worldName), x, y, z, yaw, pitch);
+            player.teleport(location);
+        };
     }
-}
\ No newline at end of file
+}
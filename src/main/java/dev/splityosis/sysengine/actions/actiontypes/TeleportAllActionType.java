@@ -1,17 +1,25 @@
 package dev.splityosis.sysengine.actions.actiontypes;
 
-import dev.splityosis.sysengine.actions.ActionType;
+import dev.splityosis.sysengine.actions.AudienceFanOut;
+import dev.splityosis.sysengine.actions.ParameterType;
+import dev.splityosis.sysengine.actions.ParameterTypes;
+import dev.splityosis.sysengine.actions.PreparedActionType;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-public class TeleportAllActionType implements ActionType {
+/**
+ * Teleports every online player to a location.
+ * <p>
+ * Players are teleported through {@link AudienceFanOut}, so large audiences are spread over several ticks.
+ * Without a world, each player is teleported within their own world, not the first online player's world.
+ */
+public class TeleportAllActionType implements PreparedActionType {
 
     @Override
     public String getName() {
@@ -39,21 +47,24 @@ public class TeleportAllActionType implements ActionType {
     }
 
     @Override
-    public void execute(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
-
-        params = applyPlaceholders(null, params, replacements);
+    public List<ParameterType<?>> getParameterTypes() {
+        return Arrays.asList(ParameterTypes.DOUBLE, ParameterTypes.DOUBLE, ParameterTypes.DOUBLE, ParameterTypes.STRING);
+    }
 
-        double x = Double.parseDouble(params.get(0));
-        double y = Double.parseDouble(params.get(1));
-        double z = Double.parseDouble(params.get(2));
-        World world = params.size() > 3 ? Bukkit.getWorld(params.get(3)) : null;
+    @Override
+    public Runnable prepare(Object target, @NotNull List<String> params, @NotNull Map<String, String> replacements) {
 
+        double x = getParameter(params, 0, ParameterTypes.DOUBLE, null, replacements);
+        double y = getParameter(params, 1, ParameterTypes.DOUBLE, null, replacements);
+        double z = getParameter(params, 2, ParameterTypes.DOUBLE, null, replacements);
+        String worldName = params.size() > 3 ? getParameter(params, 3, ParameterTypes.STRING, null, replacements) : null;
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (world == null)
-                world = player.getWorld();
-            Location location = new Location(world, x, y, z);
-            player.teleport(location);
-        }
+        return () -> {
+            World world = worldName != null ? Bukkit.getWorld(worldName) : null;
+            AudienceFanOut.forEachOnlinePlayer(player -> {
+                Location location = new Location(world == null ? player.getWorld() : world, x, y, z);
+                player.teleport(location);
+            });
+        };
     }
 }
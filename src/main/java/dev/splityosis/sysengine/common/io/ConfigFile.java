@@ -6,6 +6,8 @@ import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class ConfigFile {
 
@@ -41,13 +43,25 @@ public class ConfigFile {
     public void save(){
         if (file == null) return;
         try {
-            config.save(file);
+            FileSaveQueue.writeAtomically(file, config.saveToString());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Saves the file on the save thread, see {@link FileSaveQueue}.
+     * Saves queued before the file is written are merged into one write.
+     *
+     * @return a future completed once the file was written.
+     */
+    public CompletableFuture<Void> saveAsync(){
+        if (file == null) return CompletableFuture.completedFuture(null);
+        return FileSaveQueue.save(file, config::saveToString, 0, TimeUnit.MILLISECONDS);
+    }
+
     public void delete() {
+        FileSaveQueue.cancel(file);
         file.delete();
     }
 
@@ -37,7 +37,7 @@ public class DataFile extends ConfigFile{
                     cancel();
                     return;
                 }
-                save();
+                saveAsync();
             }
         }.runTaskTimerAsynchronously(plugin, saveOffset, interval);
     }
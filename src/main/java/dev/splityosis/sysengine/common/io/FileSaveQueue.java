@@ -0,0 +1,205 @@
+package dev.splityosis.sysengine.common.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saves files off the calling thread, atomically and coalesced per file.
+ * <p>
+ * Files are written to a temporary file next to them and then moved over them, so a crash mid-write leaves either
+ * the old or the new content, never a truncated file. Saves of the same file that are queued before it is written
+ * are merged into a single write of the latest content.
+ */
+public final class FileSaveQueue {
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SYSEngine-FileSaver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<File, PendingSave> pending = new HashMap<>();
+    private static final AtomicLong tempFileId = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong coalesced = new AtomicLong();
+
+    private FileSaveQueue() {}
+
+    /**
+     * Queues a save of a file, its content is serialized and written on the save thread after the delay.
+     * If a save of the file is already queued, it is replaced by this one and keeps the earliest of the two delays.
+     *
+     * @param file       the file to save.
+     * @param serializer produces the content to write, called on the save thread, returning null skips the write.
+     * @param delay      how long to wait for more saves of the file before writing it.
+     * @param unit       the unit of the delay.
+     * @return a future completed once the file was written, shared by every save merged into the same write.
+     */
+    public static CompletableFuture<Void> save(File file, Callable<String> serializer, long delay, TimeUnit unit) {
+        File key = file.getAbsoluteFile();
+        long runAt = System.nanoTime() + unit.toNanos(Math.max(delay, 0));
+        synchronized (pending) {
+            PendingSave save = pending.get(key);
+            if (save == null) {
+                save = new PendingSave(key, serializer);
+                pending.put(key, save);
+                save.schedule(runAt);
+                return save.future;
+            }
+
+            // Not taken by the save thread yet, since it is still queued
+            save.serializer = serializer;
+            coalesced.incrementAndGet();
+            if (runAt - save.runAt < 0 && save.task.cancel(false))
+                save.schedule(runAt);
+            return save.future;
+        }
+    }
+
+    /**
+     * Drops the queued save of a file, if any, e.g. because the file is being deleted.
+     *
+     * @param file the file.
+     */
+    public static void cancel(File file) {
+        PendingSave save;
+        synchronized (pending) {
+            save = pending.remove(file.getAbsoluteFile());
+            if (save == null)
+                return;
+            save.task.cancel(false);
+        }
+        save.future.cancel(false);
+    }
+
+    /**
+     * Writes every queued save right away and waits for them, this is called when the engine shuts down, see
+     * {@link dev.splityosis.sysengine.SYSEngine#shutdown()}.
+     */
+    public static void flush() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        synchronized (pending) {
+            long now = System.nanoTime();
+            for (PendingSave save : pending.values()) {
+                if (save.task.cancel(false))
+                    save.schedule(now);
+                futures.add(save.future);
+            }
+        }
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException | CancellationException ignored) {
+                // Reported to whoever queued the save
+            }
+        }
+    }
+
+    /**
+     * Writes a file through a temporary file that is then moved over it, so the file is never left half written.
+     *
+     * @param file    the file to write.
+     * @param content the content, written as UTF-8.
+     * @throws IOException if the file couldn't be written.
+     */
+    public static void writeAtomically(File file, String content) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        Path directory = target.getParent();
+        if (directory != null)
+            Files.createDirectories(directory);
+
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + tempFileId.incrementAndGet() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        written.incrementAndGet();
+    }
+
+    /**
+     * @return the number of saves waiting to be written.
+     */
+    public static int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * @return the number of files written.
+     */
+    public static long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return the number of saves that were merged into another save of the same file.
+     */
+    public static long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private static final class PendingSave {
+
+        private final File file;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private Callable<String> serializer;
+        private ScheduledFuture<?> task;
+        private long runAt;
+
+        private PendingSave(File file, Callable<String> serializer) {
+            this.file = file;
+            this.serializer = serializer;
+        }
+
+        private void schedule(long runAt) {
+            this.runAt = runAt;
+            this.task = executor.schedule(this::run, Math.max(runAt - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        }
+
+        private void run() {
+            Callable<String> serializer;
+            synchronized (pending) {
+                if (pending.get(file) != this)
+                    return;
+                // Saves queued from now on go into a new write
+                pending.remove(file);
+                serializer = this.serializer;
+            }
+
+            try {
+                String content = serializer.call();
+                if (content != null)
+                    writeAtomically(file, content);
+                future.complete(null);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+}
@@ -29,7 +29,7 @@ public class ConfigLib {
      * @return A new instance of ConfigManager.
      */
     public static ConfigManager createConfigManager(JavaPlugin plugin) {
-        return new DefaultConfigManager();
+        return new DefaultConfigManager(plugin);
     }
 
     /**
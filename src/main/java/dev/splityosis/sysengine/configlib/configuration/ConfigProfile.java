@@ -48,78 +48,35 @@ public class ConfigProfile {
         Map<String, List<String>> comments = new LinkedHashMap<>();
         Map<String, List<String>> inlineComments = new LinkedHashMap<>();
 
-        String currentSectionPath = "";
-
-        for (Field declaredField : ReflectionUtil.getAnnotatedFields(object.getClass(), Configuration.Field.class, Configuration.Section.class)) {
-            declaredField.setAccessible(true);
-
-            Configuration.Field fieldAnnotation = declaredField.getAnnotation(Configuration.Field.class);
-            if (fieldAnnotation != null) {
-                // It is a field that needs to be handled
-
-                Configuration.Section sectionAnnotation = declaredField.getAnnotation(Configuration.Section.class);
-                if (sectionAnnotation != null) {
-                    // Handle section stuff
-                    currentSectionPath = sectionAnnotation.value().trim();
-
-                    Configuration.SectionComment sectionCommentAnnotation = declaredField.getAnnotation(Configuration.SectionComment.class);
-                    List<String> sectionComments = getSpaceList(sectionSpacing);
-                    if (sectionCommentAnnotation != null) {
-                        // Handle section comment
-                        processComment(sectionCommentAnnotation.value(), sectionComments);
-                    }
-                    comments.put(currentSectionPath, sectionComments);
-
-                    Configuration.SectionInlineComment sectionInlineCommentAnnotation = declaredField.getAnnotation(Configuration.SectionInlineComment.class);
-                    if (sectionInlineCommentAnnotation != null) {
-                        // Handle section inline comment
-                        inlineComments.put(currentSectionPath, processComment(sectionInlineCommentAnnotation.value(), new ArrayList<>()));
-                    }
-                }
-
-                String absolutePath = currentSectionPath + (!currentSectionPath.isEmpty() ? '.' : "") + getFieldPath(fieldPathConverter, declaredField, fieldAnnotation);
-
-                Configuration.FieldComment fieldCommentAnnotation = declaredField.getAnnotation(Configuration.FieldComment.class);
-                List<String> fieldComments = getSpaceList(fieldSpacing);
-                if (fieldCommentAnnotation != null) {
-                    // Handle field comment
-                    processComment(fieldCommentAnnotation.value(), fieldComments);
-                }
-                comments.put(absolutePath, fieldComments);
-
-                Configuration.FieldInlineComment fieldInlineCommentAnnotation = declaredField.getAnnotation(Configuration.FieldInlineComment.class);
-                if (fieldInlineCommentAnnotation != null) {
-                    inlineComments.put(absolutePath, processComment(fieldInlineCommentAnnotation.value(), new ArrayList<>()));
-                }
-
-                Configuration.Mapper mapperAnnotation = declaredField.getAnnotation(Configuration.Mapper.class);
-                String mapper = "";
-                if (mapperAnnotation != null)
-                    mapper = mapperAnnotation.value();
-
-                config.put(absolutePath, new MapperClassValue(mapper, declaredField, declaredField.get(object)));
-            }
-            else {
-                Configuration.Section sectionAnnotation = declaredField.getAnnotation(Configuration.Section.class);
-                if (sectionAnnotation != null) {
-                    // Handle section stuff
-                    currentSectionPath = sectionAnnotation.value().trim();
-
-                    Configuration.SectionComment sectionCommentAnnotation = declaredField.getAnnotation(Configuration.SectionComment.class);
-                    List<String> sectionComments = getSpaceList(sectionSpacing);
-                    if (sectionCommentAnnotation != null) {
-                        // Handle section comment
-                        processComment(sectionCommentAnnotation.value(), sectionComments);
-                    }
-                    comments.put(currentSectionPath, sectionComments);
-
-                    Configuration.SectionInlineComment sectionInlineCommentAnnotation = declaredField.getAnnotation(Configuration.SectionInlineComment.class);
-                    if (sectionInlineCommentAnnotation != null) {
-                        // Handle section inline comment
-                        inlineComments.put(currentSectionPath, processComment(sectionInlineCommentAnnotation.value(), new ArrayList<>()));
-                    }
-                }
+        for (ConfigSchema.Entry entry : ConfigSchema.of(object.getClass()).getEntries()) {
+            if (entry.startsSection()) {
+                // Handle section stuff
+                String currentSectionPath = entry.getSectionPath();
+
+                List<String> sectionComments = getSpaceList(sectionSpacing);
+                if (entry.getSectionComments() != null)
+                    sectionComments.addAll(entry.getSectionComments());
+                comments.put(currentSectionPath, sectionComments);
+
+                if (entry.getSectionInlineComments() != null)
+                    inlineComments.put(currentSectionPath, new ArrayList<>(entry.getSectionInlineComments()));
             }
+
+            if (!entry.isField())
+                continue;
+
+            // It is a field that needs to be handled
+            String absolutePath = entry.getProfilePath(fieldPathConverter);
+
+            List<String> fieldComments = getSpaceList(fieldSpacing);
+            if (entry.getFieldComments() != null)
+                fieldComments.addAll(entry.getFieldComments());
+            comments.put(absolutePath, fieldComments);
+
+            if (entry.getFieldInlineComments() != null)
+                inlineComments.put(absolutePath, new ArrayList<>(entry.getFieldInlineComments()));
+
+            config.put(absolutePath, new MapperClassValue(entry, entry.get(object)));
         }
 
         if (object instanceof Configuration)
@@ -127,14 +84,6 @@ public class ConfigProfile {
         return new ConfigProfile(comments, inlineComments, config);
     }
 
-    private static List<String> processComment(String[] comment, List<String> listToModify) {
-        for (String s : comment) {
-            if (s.isEmpty()) listToModify.add(null);
-            else listToModify.add(s);
-        }
-        return listToModify;
-    }
-
     private static List<String> getSpaceList(int spaces){
         List<String> lst =  new ArrayList<>();
         for (int i = 0; i < spaces; i++)
@@ -153,6 +102,7 @@ public class ConfigProfile {
         private String mapper;
         private Field field;
         private Class<?> fieldClass;
+        private Class<?>[] genericTypes;
         private Object value;
 
         public MapperClassValue(String mapper, Field field, Object value) {
@@ -162,6 +112,14 @@ public class ConfigProfile {
             this.value = value;
         }
 
+        public MapperClassValue(ConfigSchema.Entry entry, Object value) {
+            this.mapper = entry.getMapper();
+            this.field = entry.getField();
+            this.fieldClass = entry.getFieldClass();
+            this.genericTypes = entry.getGenericTypes();
+            this.value = value;
+        }
+
         public String getMapper() {
             return mapper;
         }
@@ -174,6 +132,15 @@ public class ConfigProfile {
             return field;
         }
 
+        /**
+         * @return the generic type arguments of the field, see {@link ReflectionUtil#getGenericTypes(Field)}.
+         */
+        public Class<?>[] getGenericTypes() {
+            if (genericTypes == null)
+                genericTypes = ReflectionUtil.getGenericTypes(field);
+            return genericTypes;
+        }
+
         public Object getValue() {
             return value;
         }
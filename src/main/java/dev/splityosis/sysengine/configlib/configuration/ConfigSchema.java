@@ -0,0 +1,242 @@
+package dev.splityosis.sysengine.configlib.configuration;
+
+import dev.splityosis.sysengine.configlib.manager.strategy.FieldPathConverter;
+import dev.splityosis.sysengine.utils.ReflectionUtil;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The reflective metadata of a configuration class: its annotated fields in order, with their paths, mappers,
+ * generic types and comments.
+ * <p>
+ * Schemas are built once per class and shared by loading, saving and {@link ConfigMapper}s, so reading a class
+ * over and over (e.g. a list of thousands of mapped elements) doesn't redo the reflection every time.
+ */
+public final class ConfigSchema {
+
+    private static final ClassValue<ConfigSchema> SCHEMAS = new ClassValue<ConfigSchema>() {
+        @Override
+        protected ConfigSchema computeValue(Class<?> type) {
+            return new ConfigSchema(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final List<Entry> entries;
+
+    private ConfigSchema(Class<?> type) {
+        this.type = type;
+
+        List<Entry> entries = new ArrayList<>();
+        Configuration.Section currentSection = null;
+        for (Field field : ReflectionUtil.getAnnotatedFields(type, Configuration.Field.class, Configuration.Section.class)) {
+            field.setAccessible(true);
+            Configuration.Section sectionAnnotation = field.getAnnotation(Configuration.Section.class);
+            if (sectionAnnotation != null)
+                currentSection = sectionAnnotation;
+            entries.add(new Entry(field, currentSection, sectionAnnotation != null));
+        }
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return the schema of the class, built on first use.
+     */
+    public static ConfigSchema of(Class<?> type) {
+        return SCHEMAS.get(type);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return every field annotated with {@link Configuration.Field} or {@link Configuration.Section},
+     * superclass fields first.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public static final class Entry {
+
+        private final Field field;
+        private final FieldAccessor accessor;
+        private final Class<?> fieldClass;
+        private final Class<?>[] genericTypes;
+        private final Configuration.Field fieldAnnotation;
+        private final String mapper;
+        private final boolean startsSection;
+        private final String sectionPath;
+        private final String profileSectionPath;
+        private final List<String> sectionComments;
+        private final List<String> sectionInlineComments;
+        private final List<String> fieldComments;
+        private final List<String> fieldInlineComments;
+        private volatile ResolvedPaths resolvedPaths;
+
+        private Entry(Field field, Configuration.Section section, boolean startsSection) {
+            this.field = field;
+            this.accessor = new FieldAccessor(field);
+            this.fieldClass = field.getType();
+            this.genericTypes = ReflectionUtil.getGenericTypes(field);
+            this.fieldAnnotation = field.getAnnotation(Configuration.Field.class);
+
+            Configuration.Mapper mapperAnnotation = field.getAnnotation(Configuration.Mapper.class);
+            this.mapper = (mapperAnnotation != null) ? mapperAnnotation.value() : "";
+
+            // Loading and saving have always joined section paths slightly differently, both are kept as they were
+            this.startsSection = startsSection;
+            String value = section == null ? "" : section.value();
+            this.sectionPath = (value.isEmpty()) ? "" : value + (value.endsWith(".") ? "" : ".");
+            this.profileSectionPath = value.trim();
+
+            Configuration.SectionComment sectionComment = field.getAnnotation(Configuration.SectionComment.class);
+            Configuration.SectionInlineComment sectionInlineComment = field.getAnnotation(Configuration.SectionInlineComment.class);
+            Configuration.FieldComment fieldComment = field.getAnnotation(Configuration.FieldComment.class);
+            Configuration.FieldInlineComment fieldInlineComment = field.getAnnotation(Configuration.FieldInlineComment.class);
+            this.sectionComments = sectionComment == null ? null : commentLines(sectionComment.value());
+            this.sectionInlineComments = sectionInlineComment == null ? null : commentLines(sectionInlineComment.value());
+            this.fieldComments = fieldComment == null ? null : commentLines(fieldComment.value());
+            this.fieldInlineComments = fieldInlineComment == null ? null : commentLines(fieldInlineComment.value());
+        }
+
+        // Empty comment lines are blank lines
+        private static List<String> commentLines(String[] comment) {
+            List<String> lines = new ArrayList<>(comment.length);
+            for (String s : comment)
+                lines.add(s.isEmpty() ? null : s);
+            return Collections.unmodifiableList(lines);
+        }
+
+        /**
+         * @return the field, already made accessible.
+         */
+        public Field getField() {
+            return field;
+        }
+
+        /**
+         * @return the value of the field in the given object.
+         */
+        public Object get(Object object) throws IllegalAccessException {
+            return accessor.get(object);
+        }
+
+        /**
+         * Sets the field in the given object, converting the value the same way {@link Field#set} does.
+         */
+        public void set(Object object, Object value) throws IllegalAccessException {
+            accessor.set(object, value);
+        }
+
+        /**
+         * Sets the field in the given object to null, or to zero / false if it is primitive.
+         */
+        public void setDefault(Object object) throws IllegalAccessException {
+            accessor.setDefault(object);
+        }
+
+        public Class<?> getFieldClass() {
+            return fieldClass;
+        }
+
+        /**
+         * @return the generic type arguments of the field, see {@link ReflectionUtil#getGenericTypes(Field)}.
+         * The array is shared and must not be modified.
+         */
+        public Class<?>[] getGenericTypes() {
+            return genericTypes;
+        }
+
+        /**
+         * @return whether the field is annotated with {@link Configuration.Field}, entries that aren't only start a section.
+         */
+        public boolean isField() {
+            return fieldAnnotation != null;
+        }
+
+        public String getMapper() {
+            return mapper;
+        }
+
+        /**
+         * @return whether the field is annotated with {@link Configuration.Section}.
+         */
+        public boolean startsSection() {
+            return startsSection;
+        }
+
+        /**
+         * @return the trimmed value of the section the field is in, or an empty string.
+         */
+        public String getSectionPath() {
+            return profileSectionPath;
+        }
+
+        /**
+         * @return the section comment lines, or null if the field has no {@link Configuration.SectionComment}.
+         */
+        public List<String> getSectionComments() {
+            return sectionComments;
+        }
+
+        public List<String> getSectionInlineComments() {
+            return sectionInlineComments;
+        }
+
+        /**
+         * @return the field comment lines, or null if the field has no {@link Configuration.FieldComment}.
+         */
+        public List<String> getFieldComments() {
+            return fieldComments;
+        }
+
+        public List<String> getFieldInlineComments() {
+            return fieldInlineComments;
+        }
+
+        /**
+         * @return the path the field is read from when loading.
+         */
+        public String getPath(FieldPathConverter fieldPathConverter) {
+            return resolve(fieldPathConverter).path;
+        }
+
+        /**
+         * @return the path the field is written at in a {@link ConfigProfile}.
+         */
+        public String getProfilePath(FieldPathConverter fieldPathConverter) {
+            return resolve(fieldPathConverter).profilePath;
+        }
+
+        // Paths depend on the converter, the last one used is remembered since there is usually only one
+        private ResolvedPaths resolve(FieldPathConverter fieldPathConverter) {
+            ResolvedPaths paths = resolvedPaths;
+            if (paths != null && paths.converter == fieldPathConverter)
+                return paths;
+
+            String fieldPath = ConfigProfile.getFieldPath(fieldPathConverter, field, fieldAnnotation);
+            paths = new ResolvedPaths(fieldPathConverter, sectionPath + fieldPath,
+                    profileSectionPath + (!profileSectionPath.isEmpty() ? '.' : "") + fieldPath);
+            resolvedPaths = paths;
+            return paths;
+        }
+    }
+
+    private static final class ResolvedPaths {
+
+        private final FieldPathConverter converter;
+        private final String path;
+        private final String profilePath;
+
+        private ResolvedPaths(FieldPathConverter converter, String path, String profilePath) {
+            this.converter = converter;
+            this.path = path;
+            this.profilePath = profilePath;
+        }
+    }
+}
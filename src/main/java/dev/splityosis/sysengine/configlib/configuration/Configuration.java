@@ -43,9 +43,15 @@ public interface Configuration {
     /**
      * Gets called after the objects have been mapped and before the config is saved.
      * Used to define logic right before the final configuration structure is written to a file.
+     * <p>
+     * This is called on the thread that calls save, even for {@link dev.splityosis.sysengine.configlib.manager.ConfigManager#saveAsync}.
+     * The section is a new one holding only this config's mapped values, not the file's content, so keys of the file
+     * that aren't fields of this config can't be read here. Once this returns, the section is merged into the file's
+     * current content: the config's fields replace their paths, and any other key set here is added to the file.
+     * Keys of the file that aren't fields of this config are kept, even if they are removed from the section.
      *
      * @param file the file that this config will be saved to.
-     * @param config the processed configuration section containing the mapped values.
+     * @param config a section holding this config's mapped values, merged into the file once this returns.
      */
     default void onSave(File file, ConfigurationSection config) {}
 
@@ -0,0 +1,178 @@
+package dev.splityosis.sysengine.configlib.configuration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads and writes a configuration field through method handles bound once per field.
+ * <p>
+ * Primitive fields are written through a handle of their own type, so a value is unboxed once and the field's
+ * default is written without boxing at all. Values are converted like {@link Field#set(Object, Object)} does
+ * (e.g. an {@code Integer} into a {@code double} field), anything it wouldn't accept is handed to
+ * {@link Field#set(Object, Object)} so the error stays the same.
+ */
+final class FieldAccessor {
+
+    private static final int REFERENCE = 0, BOOLEAN = 1, BYTE = 2, CHAR = 3, SHORT = 4, INT = 5, LONG = 6, FLOAT = 7, DOUBLE = 8;
+
+    private final Field field;
+    private final Class<?> type;
+    private final int kind;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    FieldAccessor(Field field) {
+        this.field = field;
+        this.type = field.getType();
+        this.kind = kindOf(type);
+
+        MethodHandle getter = null, setter = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> valueType = kind == REFERENCE ? Object.class : type;
+            getter = lookup.unreflectGetter(field);
+            setter = lookup.unreflectSetter(field);
+            // Static fields take no instance, the target is accepted and ignored like Field#get and Field#set do
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter.asType(MethodType.methodType(Object.class)), 0, Object.class);
+                setter = MethodHandles.dropArguments(setter.asType(MethodType.methodType(void.class, valueType)), 0, Object.class);
+            }
+            else {
+                getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+                setter = setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+            }
+        } catch (Exception e) {
+            // Final fields and the like can't be bound, they keep going through the Field
+            getter = null;
+            setter = null;
+        }
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    Object get(Object target) throws IllegalAccessException {
+        if (getter == null)
+            return field.get(target);
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    void set(Object target, Object value) throws IllegalAccessException {
+        if (setter == null || !trySet(target, value))
+            field.set(target, value);
+    }
+
+    /**
+     * Sets the field to null, or to zero / false for primitives.
+     */
+    void setDefault(Object target) throws IllegalAccessException {
+        if (setter == null) {
+            field.set(target, defaultValue(type));
+            return;
+        }
+        try {
+            switch (kind) {
+                case BOOLEAN: setter.invokeExact(target, false); break;
+                case BYTE: setter.invokeExact(target, (byte) 0); break;
+                case CHAR: setter.invokeExact(target, '\u0000'); break;
+                case SHORT: setter.invokeExact(target, (short) 0); break;
+                case INT: setter.invokeExact(target, 0); break;
+                case LONG: setter.invokeExact(target, 0L); break;
+                case FLOAT: setter.invokeExact(target, 0f); break;
+                case DOUBLE: setter.invokeExact(target, 0d); break;
+                default: setter.invokeExact(target, (Object) null);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    // Returns false if the value needs a conversion Field#set would reject
+    private boolean trySet(Object target, Object value) {
+        try {
+            switch (kind) {
+                case REFERENCE:
+                    if (value != null && !type.isInstance(value)) return false;
+                    setter.invokeExact(target, value);
+                    return true;
+                case BOOLEAN:
+                    if (!(value instanceof Boolean)) return false;
+                    setter.invokeExact(target, ((Boolean) value).booleanValue());
+                    return true;
+                case CHAR:
+                    if (!(value instanceof Character)) return false;
+                    setter.invokeExact(target, ((Character) value).charValue());
+                    return true;
+                case BYTE:
+                    if (!(value instanceof Byte)) return false;
+                    setter.invokeExact(target, ((Byte) value).byteValue());
+                    return true;
+            }
+
+            // Widening conversions, chars widen to int and larger
+            if (value instanceof Character) {
+                if (kind < INT) return false;
+                value = (int) (Character) value;
+            }
+            if (!(value instanceof Number) || rankOf(value) > kind) return false;
+            Number number = (Number) value;
+            switch (kind) {
+                case SHORT: setter.invokeExact(target, number.shortValue()); break;
+                case INT: setter.invokeExact(target, number.intValue()); break;
+                case LONG: setter.invokeExact(target, number.longValue()); break;
+                case FLOAT: setter.invokeExact(target, number.floatValue()); break;
+                default: setter.invokeExact(target, number.doubleValue());
+            }
+            return true;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    // The kind of the primitive the boxed number holds, or a rank no primitive field accepts
+    private static int rankOf(Object number) {
+        if (number instanceof Integer) return INT;
+        if (number instanceof Double) return DOUBLE;
+        if (number instanceof Long) return LONG;
+        if (number instanceof Float) return FLOAT;
+        if (number instanceof Short) return SHORT;
+        if (number instanceof Byte) return BYTE;
+        return Integer.MAX_VALUE;
+    }
+
+    private static int kindOf(Class<?> type) {
+        if (!type.isPrimitive()) return REFERENCE;
+        if (type == boolean.class) return BOOLEAN;
+        if (type == byte.class) return BYTE;
+        if (type == char.class) return CHAR;
+        if (type == short.class) return SHORT;
+        if (type == int.class) return INT;
+        if (type == long.class) return LONG;
+        if (type == float.class) return FLOAT;
+        return DOUBLE;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) return null;
+        if (type == boolean.class) return false;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return '\u0000';
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return 0d;
+    }
+}
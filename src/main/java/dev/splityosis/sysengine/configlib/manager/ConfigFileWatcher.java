@@ -0,0 +1,206 @@
+package dev.splityosis.sysengine.configlib.manager;
+
+import dev.splityosis.sysengine.configlib.bukkit.InvalidConfigurationException;
+import dev.splityosis.sysengine.configlib.bukkit.file.YamlConfiguration;
+import dev.splityosis.sysengine.configlib.configuration.Configuration;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Watches the files of the configurations registered to a {@link DefaultConfigManager} and reloads a configuration
+ * once its file was changed on disk, see {@link ConfigManager#startWatching()}.
+ * <p>
+ * Changes are debounced, so an editor saving a file in several writes causes a single reload. The changed file is
+ * read and parsed on the watcher thread, and only bound on the main thread. Files whose content hash is the same
+ * as when they were last loaded or saved by the manager are skipped.
+ * <p>
+ * Watchers are closed by {@link ConfigManager#stopWatching()}, or when the engine shuts down, see {@link DefaultConfigManager#stopAllWatching()}.
+ */
+final class ConfigFileWatcher {
+
+    private final DefaultConfigManager manager;
+    private final JavaPlugin plugin;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final Map<Configuration, Path> watchedConfigs = new ConcurrentHashMap<>();
+    private final Map<Path, byte[]> hashes = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> directories = new HashMap<>();
+    // Only touched by the watcher thread
+    private final Map<Path, Long> pending = new HashMap<>();
+    private volatile boolean running = true;
+
+    ConfigFileWatcher(DefaultConfigManager manager, JavaPlugin plugin) throws IOException {
+        this.manager = manager;
+        this.plugin = plugin;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = new Thread(this::run, "SYSEngine-ConfigWatcher-" + plugin.getName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Starts watching the file of a configuration, the file's current content is taken as already loaded.
+     */
+    synchronized void watch(Configuration configuration, File file) throws IOException {
+        Path path = toPath(file);
+        Path previous = watchedConfigs.put(configuration, path);
+        if (previous != null && !previous.equals(path))
+            release(previous);
+
+        Path directory = path.getParent();
+        if (!directories.containsKey(directory))
+            directories.put(directory, directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+        updateHash(file);
+    }
+
+    synchronized void unwatch(Configuration configuration) {
+        Path path = watchedConfigs.remove(configuration);
+        if (path != null)
+            release(path);
+    }
+
+    // Stops watching a file's directory once no configuration uses it anymore
+    private void release(Path path) {
+        if (watchedConfigs.containsValue(path))
+            return;
+        hashes.remove(path);
+
+        Path directory = path.getParent();
+        for (Path watched : watchedConfigs.values())
+            if (watched.getParent().equals(directory))
+                return;
+        WatchKey key = directories.remove(directory);
+        if (key != null)
+            key.cancel();
+    }
+
+    /**
+     * Remembers the current content of a file, so that the manager's own loads and saves don't trigger reloads.
+     */
+    void updateHash(File file) {
+        Path path = toPath(file);
+        if (!watchedConfigs.containsValue(path))
+            return;
+        try {
+            hashes.put(path, hash(Files.readAllBytes(path)));
+        } catch (IOException e) {
+            hashes.remove(path);
+        }
+    }
+
+    void close() {
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {}
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                WatchKey key;
+                if (pending.isEmpty())
+                    key = watchService.take();
+                else {
+                    long wait = Collections.min(pending.values()) - System.nanoTime();
+                    key = wait > 0 ? watchService.poll(wait, TimeUnit.NANOSECONDS) : watchService.poll();
+                }
+
+                if (key != null) {
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(manager.getConfigOptions().getWatchDebounce());
+                    Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            for (Path path : watchedConfigs.values())
+                                if (path.getParent().equals(directory))
+                                    pending.put(path, deadline);
+                            continue;
+                        }
+                        Path path = directory.resolve((Path) event.context());
+                        if (watchedConfigs.containsValue(path))
+                            pending.put(path, deadline);
+                    }
+                    key.reset();
+                }
+
+                long now = System.nanoTime();
+                Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Path, Long> entry = iterator.next();
+                    if (entry.getValue() - now > 0)
+                        continue;
+                    iterator.remove();
+                    reload(entry.getKey());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // Stopped
+        }
+    }
+
+    private void reload(Path path) {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(path);
+        } catch (IOException e) {
+            // Deleted, or replaced by an editor in the meantime, the next event picks it up
+            return;
+        }
+
+        byte[] hash = hash(content);
+        byte[] previousHash = hashes.get(path);
+        if (Arrays.equals(hash, previousHash))
+            return;
+
+        YamlConfiguration section = new YamlConfiguration();
+        try {
+            section.loadFromString(new String(content, StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException e) {
+            Bukkit.getLogger().log(Level.SEVERE, "Failed to reload config file '" + path + "', keeping its previous values", e);
+            return;
+        }
+
+        if (!plugin.isEnabled())
+            return;
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            // A load or save since the file was read recorded a newer content, which must not be overwritten by this one
+            boolean isCurrent = previousHash == null ? hashes.putIfAbsent(path, hash) == null : hashes.replace(path, previousHash, hash);
+            if (!isCurrent)
+                return;
+            for (Map.Entry<Configuration, Path> entry : watchedConfigs.entrySet()) {
+                if (!entry.getValue().equals(path))
+                    continue;
+                try {
+                    manager.writeToFields(entry.getKey(), section);
+                    manager.markLoaded(entry.getKey(), section);
+                } catch (Exception e) {
+                    Bukkit.getLogger().log(Level.SEVERE, "Failed to reload config file '" + path + "'", e);
+                }
+            }
+        });
+    }
+
+    private static Path toPath(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
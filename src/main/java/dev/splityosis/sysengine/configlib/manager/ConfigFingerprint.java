@@ -0,0 +1,102 @@
+package dev.splityosis.sysengine.configlib.manager;
+
+import dev.splityosis.sysengine.configlib.bukkit.ConfigurationSection;
+import dev.splityosis.sysengine.configlib.configuration.ConfigProfile;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A SHA-256 digest of the values at the top level keys of a {@link ConfigProfile}, and of its comments.
+ * Used to tell whether a configuration changed since it was last loaded or saved, without reading its file.
+ */
+final class ConfigFingerprint {
+
+    private static final byte SECTION_START = 1, SECTION_END = 2, LIST_START = 3, LIST_END = 4, VALUE = 5;
+
+    private ConfigFingerprint() {}
+
+    /**
+     * Digests the values a section holds at the top level keys of the profile's paths and at the given keys,
+     * the section is either the one the file was loaded into, or the one the profile was mapped into when saving.
+     * Saves pass every key of the mapped section, so keys {@link dev.splityosis.sysengine.configlib.configuration.Configuration#onSave}
+     * added are digested too.
+     */
+    static byte[] of(ConfigProfile ymlProfile, ConfigurationSection section, Collection<String> keys) {
+        Set<String> digestedKeys = new TreeSet<>(keys);
+        for (String path : ymlProfile.getConfig().keySet()) {
+            int separator = path.indexOf('.');
+            digestedKeys.add(separator == -1 ? path : path.substring(0, separator));
+        }
+
+        MessageDigest digest = newDigest();
+        for (String key : digestedKeys) {
+            update(digest, key);
+            digest(digest, section.get(key));
+        }
+        update(digest, String.valueOf(ymlProfile.getComments()));
+        update(digest, String.valueOf(ymlProfile.getInlineComments()));
+        return digest.digest();
+    }
+
+    private static void digest(MessageDigest digest, Object value) {
+        if (value instanceof ConfigurationSection) {
+            ConfigurationSection section = (ConfigurationSection) value;
+            digest.update(SECTION_START);
+            for (String key : section.getKeys(false)) {
+                update(digest, key);
+                digest(digest, section.get(key));
+            }
+            digest.update(SECTION_END);
+        } else if (value instanceof Map) {
+            digest.update(SECTION_START);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                update(digest, String.valueOf(entry.getKey()));
+                digest(digest, entry.getValue());
+            }
+            digest.update(SECTION_END);
+        } else if (value instanceof Collection) {
+            digest.update(LIST_START);
+            for (Object element : (Collection<?>) value)
+                digest(digest, element);
+            digest.update(LIST_END);
+        } else {
+            digest.update(VALUE);
+            update(digest, typeOf(value) + ':' + value);
+        }
+    }
+
+    // Types written the same way share a name, a long field loads back as an Integer and a char as a String
+    private static String typeOf(Object value) {
+        if (value == null) return "null";
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte || value instanceof BigInteger)
+            return "int";
+        if (value instanceof Double || value instanceof Float) return "float";
+        if (value instanceof String || value instanceof Character) return "str";
+        return value.getClass().getName();
+    }
+
+    private static void update(MessageDigest digest, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
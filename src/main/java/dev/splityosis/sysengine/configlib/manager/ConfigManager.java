@@ -7,6 +7,7 @@ import dev.splityosis.sysengine.configlib.bukkit.ConfigurationSection;
 import dev.splityosis.sysengine.configlib.bukkit.InvalidConfigurationException;
 
 import java.io.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for managing configurations in the system.
@@ -42,26 +43,79 @@ public interface ConfigManager {
 
     /**
      * Saves the configuration back to its file.
+     * Nothing is written if the configuration didn't change since it was last loaded or saved.
      *
      * @param configuration the configuration to save
      * @throws Exception if an error occurs while saving the config
      */
     void save(Configuration configuration) throws Exception;
 
+    /**
+     * Saves a configuration without blocking the calling thread.
+     * The configuration is mapped right away, along with its {@link Configuration#onPreMapping()} and
+     * {@link Configuration#onSave} hooks, only merging the result into the file and writing it happen on the save thread.
+     * Saves of the same configuration within {@link ConfigOptions#getSaveDelay()} are merged into one write.
+     * Files are always written atomically, see {@link dev.splityosis.sysengine.common.io.FileSaveQueue}.
+     *
+     * @param configuration the configuration to save
+     * @return a future completed once the file was written
+     */
+    CompletableFuture<Void> saveAsync(Configuration configuration);
+
     /**
      * Reloads all registered configurations.
+     * Files are read and parsed in parallel, then bound on the calling thread in registration order.
      *
      * @throws Exception if an error occurs while reloading all configurations
      */
     void reloadAll() throws Exception;
 
+    /**
+     * Reloads all registered configurations without blocking the calling thread.
+     * Files are read and parsed in parallel, then bound on the main thread in registration order.
+     * This may be called from any thread.
+     *
+     * @return a future completed once every configuration is bound, or completed exceptionally
+     *         with the error of the first configuration that failed, or if the plugin was disabled before binding
+     */
+    CompletableFuture<Void> reloadAllAsync();
+
     /**
      * Saves all registered configurations to their respective files.
+     * Configurations that didn't change since they were last loaded or saved are skipped.
      *
      * @throws Exception if an error occurs while saving all configurations
      */
     void saveAll() throws Exception;
 
+    /**
+     * Saves all registered configurations without blocking the calling thread, see {@link #saveAsync(Configuration)}.
+     *
+     * @return a future completed once every file was written
+     */
+    CompletableFuture<Void> saveAllAsync();
+
+    /**
+     * Starts watching the files of the registered configurations, including the ones registered later on.
+     * A configuration is reloaded on the main thread once its file was changed on disk,
+     * its {@link Configuration#onLoad} is called with the new content.
+     * Changes are debounced, see {@link ConfigOptions#setWatchDebounce(long)}, and files whose content didn't change are skipped.
+     *
+     * @throws IOException if the file system can't be watched
+     */
+    void startWatching() throws IOException;
+
+    /**
+     * Stops watching the files of the registered configurations, call it when your plugin is disabled.
+     * Managers still watching when the engine shuts down are stopped then, see {@link dev.splityosis.sysengine.SYSEngine#shutdown()}.
+     */
+    void stopWatching();
+
+    /**
+     * @return whether the files of the registered configurations are being watched.
+     */
+    boolean isWatching();
+
     /**
      * Retrieves the MapperRegistry, which manages the mappers used for configuration data.
      *
@@ -4,6 +4,9 @@ public class ConfigOptions {
 
     private int fieldSpacing = 0;
     private int sectionSpacing = 1;
+    private boolean streamingReads = false;
+    private long watchDebounce = 500;
+    private long saveDelay = 1000;
 
 
     public ConfigOptions() {}
@@ -43,4 +46,65 @@ public class ConfigOptions {
         this.sectionSpacing = sectionSpacing;
         return this;
     }
+
+    /**
+     * Checks whether config files are read straight into fields from the YAML parser,
+     * instead of loading the whole file into a configuration tree first.
+     * @return whether streaming reads are enabled
+     */
+    public boolean isStreamingReads() {
+        return streamingReads;
+    }
+
+    /**
+     * Sets whether config files are read straight into fields from the YAML parser, disabled by default.
+     * Only the nodes of annotated fields are kept in memory, which lowers the memory peak of loading large files.
+     * Note that {@link dev.splityosis.sysengine.configlib.configuration.Configuration#onLoad} then receives a section
+     * holding only the nodes that needed a mapper, unless the configuration overrides it, in which case the whole file is loaded as before.
+     * Reloading them all streams every file in parallel, and only sets the fields once they are bound.
+     * @param streamingReads whether to enable streaming reads
+     * @return the current ConfigOptions instance (for chaining)
+     */
+    public ConfigOptions setStreamingReads(boolean streamingReads) {
+        this.streamingReads = streamingReads;
+        return this;
+    }
+
+    /**
+     * Gets how long a watched file has to stay unchanged before it is reloaded.
+     * @return the debounce in milliseconds
+     */
+    public long getWatchDebounce() {
+        return watchDebounce;
+    }
+
+    /**
+     * Sets how long a watched file has to stay unchanged before it is reloaded, 500 milliseconds by default.
+     * See {@link ConfigManager#startWatching()}.
+     * @param watchDebounce the debounce in milliseconds
+     * @return the current ConfigOptions instance (for chaining)
+     */
+    public ConfigOptions setWatchDebounce(long watchDebounce) {
+        this.watchDebounce = Math.max(watchDebounce, 0);
+        return this;
+    }
+
+    /**
+     * Gets how long an asynchronous save waits for more saves of the same config before writing it.
+     * @return the delay in milliseconds
+     */
+    public long getSaveDelay() {
+        return saveDelay;
+    }
+
+    /**
+     * Sets how long an asynchronous save waits for more saves of the same config before writing it, 1000 milliseconds by default.
+     * See {@link ConfigManager#saveAsync}.
+     * @param saveDelay the delay in milliseconds
+     * @return the current ConfigOptions instance (for chaining)
+     */
+    public ConfigOptions setSaveDelay(long saveDelay) {
+        this.saveDelay = Math.max(saveDelay, 0);
+        return this;
+    }
 }
@@ -1,28 +1,40 @@
 package dev.splityosis.sysengine.configlib.manager;
 
+import dev.splityosis.sysengine.common.io.FileSaveQueue;
 import dev.splityosis.sysengine.configlib.ConfigLib;
 import dev.splityosis.sysengine.configlib.configuration.AbstractMapper;
 import dev.splityosis.sysengine.configlib.configuration.Configuration;
 import dev.splityosis.sysengine.configlib.configuration.ConfigProfile;
+import dev.splityosis.sysengine.configlib.configuration.ConfigSchema;
 import dev.splityosis.sysengine.configlib.exceptions.ConfigNotRegisteredException;
 import dev.splityosis.sysengine.configlib.manager.strategy.FieldPathConverter;
 import dev.splityosis.sysengine.configlib.manager.strategy.impl.DefaultFieldPathConverter;
-import dev.splityosis.sysengine.utils.ReflectionUtil;
 import dev.splityosis.sysengine.configlib.bukkit.ConfigurationSection;
 import dev.splityosis.sysengine.configlib.bukkit.InvalidConfigurationException;
 import dev.splityosis.sysengine.configlib.bukkit.file.FileConfiguration;
 import dev.splityosis.sysengine.configlib.bukkit.file.YamlConfiguration;
 
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DefaultConfigManager implements ConfigManager {
 
     private ConfigOptions configOptions;
     private FieldPathConverter fieldPathConverter;
-    private final Map<Configuration, File> registeredConfigs = new HashMap<>();
+    private final JavaPlugin plugin;
+    // Kept in registration order, which is the order configs are bound in when reloading them all.
+    // Synchronized since the async methods may be called from any thread, iterate over registeredConfigs() instead
+    private final Map<Configuration, File> registeredConfigs = Collections.synchronizedMap(new LinkedHashMap<>());
+    private ConfigFileWatcher fileWatcher;
+    // What each configuration held when it was last loaded or saved, see ConfigFingerprint
+    private final Map<Configuration, byte[]> fingerprints = new ConcurrentHashMap<>();
 
     // Basic set of classes considered "primitive-like"
     private static final Set<Class<?>> PRIMITIVE_CLASSES = new HashSet<>(Arrays.asList(
@@ -30,11 +42,20 @@ public class DefaultConfigManager implements ConfigManager {
             Character.class, Boolean.class, Byte.class, Short.class, Void.class
     ));
 
-    public DefaultConfigManager() {
+    // Shared by every manager, files are only parsed here, never bound
+    private static final ExecutorService PARSE_EXECUTOR = createParseExecutor();
+    private static final Set<DefaultConfigManager> watchingManagers = ConcurrentHashMap.newKeySet();
+
+    public DefaultConfigManager(JavaPlugin plugin) {
+        this.plugin = plugin;
         this.configOptions = new ConfigOptions();
         this.fieldPathConverter = new DefaultFieldPathConverter();
     }
 
+    public DefaultConfigManager() {
+        this(null);
+    }
+
     /* -------------------------------------------------
      * Registration / Unregistration
      * ------------------------------------------------- */
@@ -45,7 +66,9 @@ public class DefaultConfigManager implements ConfigManager {
             writeToFile(file, configuration);
         }
         registeredConfigs.put(configuration, file);
-        writeToFields(configuration, readFile(file));
+        load(configuration, file);
+        if (fileWatcher != null)
+            fileWatcher.watch(configuration, file);
     }
 
     @Override
@@ -53,6 +76,51 @@ public class DefaultConfigManager implements ConfigManager {
         if (registeredConfigs.remove(configuration) == null) {
             throw new ConfigNotRegisteredException(configuration);
         }
+        if (fileWatcher != null)
+            fileWatcher.unwatch(configuration);
+        fingerprints.remove(configuration);
+    }
+
+    /* -------------------------------------------------
+     * File Watching
+     * ------------------------------------------------- */
+
+    @Override
+    public void startWatching() throws IOException {
+        if (fileWatcher != null) return;
+
+        ConfigFileWatcher watcher = new ConfigFileWatcher(this, getPlugin());
+        try {
+            for (Map.Entry<Configuration, File> entry : registeredConfigs())
+                watcher.watch(entry.getKey(), entry.getValue());
+        } catch (IOException e) {
+            watcher.close();
+            throw e;
+        }
+        fileWatcher = watcher;
+        watchingManagers.add(this);
+    }
+
+    @Override
+    public void stopWatching() {
+        if (fileWatcher == null) return;
+        fileWatcher.close();
+        fileWatcher = null;
+        watchingManagers.remove(this);
+    }
+
+    /**
+     * Stops watching the config files of every manager, closing their watcher threads.
+     * This is done for you when the engine shuts down, see {@link dev.splityosis.sysengine.SYSEngine#shutdown()}.
+     */
+    public static void stopAllWatching() {
+        for (DefaultConfigManager manager : new ArrayList<>(watchingManagers))
+            manager.stopWatching();
+    }
+
+    @Override
+    public boolean isWatching() {
+        return fileWatcher != null;
     }
 
     /* -------------------------------------------------
@@ -65,36 +133,232 @@ public class DefaultConfigManager implements ConfigManager {
         if (file == null) {
             throw new ConfigNotRegisteredException(configuration);
         }
-        writeToFields(configuration, readFile(file));
+        load(configuration, file);
     }
 
     @Override
     public void save(Configuration configuration) throws Exception {
-        File file = registeredConfigs.get(configuration);
-        if (file == null) {
-            throw new ConfigNotRegisteredException(configuration);
+        // Goes through the save queue too, so it replaces a queued save instead of being overwritten by it
+        join(queueSave(configuration, 0));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(Configuration configuration) {
+        try {
+            return queueSave(configuration, configOptions.getSaveDelay());
+        } catch (Exception e) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
         }
-        writeToFile(file, configuration);
     }
 
     @Override
     public void reloadAll() throws Exception {
-        for (Configuration configuration : registeredConfigs.keySet()) {
-            reload(configuration);
-        }
+        List<Map.Entry<Configuration, File>> configs = registeredConfigs();
+        bindAll(configs, parseAll(configs));
+    }
+
+    @Override
+    public CompletableFuture<Void> reloadAllAsync() {
+        List<Map.Entry<Configuration, File>> configs = registeredConfigs();
+        List<CompletableFuture<ParsedConfig>> parsed = parseAll(configs);
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture.allOf(parsed.toArray(new CompletableFuture[0])).whenComplete((ignored, throwable) -> {
+            try {
+                Bukkit.getScheduler().runTask(getPlugin(), () -> {
+                    try {
+                        bindAll(configs, parsed);
+                        future.complete(null);
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+            } catch (Throwable t) {
+                // The plugin was disabled while parsing, nothing can be bound anymore
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
     }
 
     @Override
     public void saveAll() throws Exception {
-        for (Configuration configuration : registeredConfigs.keySet()) {
-            save(configuration);
+        List<Map.Entry<Configuration, File>> configs = registeredConfigs();
+        List<CompletableFuture<Void>> saves = new ArrayList<>(configs.size());
+        for (Map.Entry<Configuration, File> config : configs) {
+            saves.add(queueSave(config.getKey(), 0));
+        }
+        for (CompletableFuture<Void> save : saves) {
+            join(save);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAllAsync() {
+        List<Map.Entry<Configuration, File>> configs = registeredConfigs();
+        List<CompletableFuture<Void>> saves = new ArrayList<>(configs.size());
+        for (Map.Entry<Configuration, File> config : configs) {
+            saves.add(saveAsync(config.getKey()));
+        }
+        return CompletableFuture.allOf(saves.toArray(new CompletableFuture[0]));
+    }
+
+    // The profile is mapped on the calling thread, the save thread only merges the mapped section into the file
+    private CompletableFuture<Void> queueSave(Configuration configuration, long delayMillis) throws IllegalAccessException {
+        File file = registeredConfigs.get(configuration);
+        if (file == null) {
+            throw new ConfigNotRegisteredException(configuration);
+        }
+
+        ConfigProfile ymlProfile = ConfigProfile.readConfigObject(
+                configuration,
+                configOptions.getSectionSpacing(),
+                configOptions.getFieldSpacing(),
+                fieldPathConverter
+        );
+        MappedProfile mapped = map(file, ymlProfile, null);
+        byte[] fingerprint = ConfigFingerprint.of(ymlProfile, mapped.root, mapped.root.getKeys(false));
+        ConfigFileWatcher watcher = fileWatcher;
+        AtomicBoolean isWritten = new AtomicBoolean(false);
+        CompletableFuture<Void> save = FileSaveQueue.save(file, () -> {
+            // Unchanged since it was last loaded or saved, the file isn't even read
+            if (file.exists() && Arrays.equals(fingerprint, fingerprints.get(configuration)))
+                return null;
+            isWritten.set(true);
+            return merge(file, mapped);
+        }, delayMillis, TimeUnit.MILLISECONDS);
+
+        // Only the save that was written updates the fingerprint, the ones merged into it don't
+        save.thenRun(() -> {
+            if (!isWritten.get())
+                return;
+            fingerprints.put(configuration, fingerprint);
+            if (watcher != null)
+                watcher.updateHash(file);
+        });
+        return save;
+    }
+
+    /**
+     * Remembers what a configuration was loaded from, so that saving it unchanged doesn't rewrite its file.
+     * Keys that only {@link Configuration#onSave} adds aren't known yet, so the first save of such a configuration always writes.
+     */
+    void markLoaded(Configuration configuration, ConfigurationSection section) {
+        try {
+            ConfigProfile ymlProfile = ConfigProfile.readConfigObject(
+                    configuration,
+                    configOptions.getSectionSpacing(),
+                    configOptions.getFieldSpacing(),
+                    fieldPathConverter
+            );
+            fingerprints.put(configuration, ConfigFingerprint.of(ymlProfile, section, Collections.emptySet()));
+        } catch (IllegalAccessException e) {
+            fingerprints.remove(configuration);
+        }
+    }
+
+    private static void join(CompletableFuture<Void> future) throws Exception {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            throw e;
+        }
+    }
+
+    // Reads and parses every file in parallel, nothing is bound yet
+    private List<CompletableFuture<ParsedConfig>> parseAll(List<Map.Entry<Configuration, File>> configs) {
+        List<CompletableFuture<ParsedConfig>> parsed = new ArrayList<>(configs.size());
+        for (Map.Entry<Configuration, File> config : configs) {
+            parsed.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return parse(config.getKey(), config.getValue());
+                } catch (IOException | InvalidConfigurationException e) {
+                    throw new CompletionException(e);
+                }
+            }, PARSE_EXECUTOR));
         }
+        return parsed;
+    }
+
+    // Binds the parsed files in registration order, stopping at the first one that failed like a sequential reload would
+    private void bindAll(List<Map.Entry<Configuration, File>> configs, List<CompletableFuture<ParsedConfig>> parsed)
+            throws Exception {
+        for (int i = 0; i < configs.size(); i++) {
+            ParsedConfig config;
+            try {
+                config = parsed.get(i).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) throw (Exception) cause;
+                throw e;
+            }
+            config.bind();
+            if (fileWatcher != null)
+                fileWatcher.updateHash(configs.get(i).getValue());
+        }
+    }
+
+    // A copy of the registered configs in registration order, safe to iterate from any thread
+    private List<Map.Entry<Configuration, File>> registeredConfigs() {
+        synchronized (registeredConfigs) {
+            List<Map.Entry<Configuration, File>> configs = new ArrayList<>(registeredConfigs.size());
+            for (Map.Entry<Configuration, File> entry : registeredConfigs.entrySet())
+                configs.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+            return configs;
+        }
+    }
+
+    private JavaPlugin getPlugin() {
+        return plugin != null ? plugin : JavaPlugin.getProvidingPlugin(DefaultConfigManager.class);
+    }
+
+    private static ExecutorService createParseExecutor() {
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadId = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "SYSEngine-ConfigParser-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Idle threads die off, configs are only reloaded once in a while
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     /* -------------------------------------------------
      * Reading / Writing to File
      * ------------------------------------------------- */
 
+    // Reads the file into the configuration's fields, streaming it if enabled
+    private void load(Configuration configuration, File file)
+            throws IOException, InvalidConfigurationException, IllegalAccessException {
+        parse(configuration, file).bind();
+        if (fileWatcher != null)
+            fileWatcher.updateHash(file);
+    }
+
+    // Reads and parses the file on any thread, the fields are only set once the result is bound
+    private ParsedConfig parse(Configuration configuration, File file) throws IOException, InvalidConfigurationException {
+        if (configOptions.isStreamingReads()) {
+            StreamingConfigReader reader = StreamingConfigReader.parse(this, configuration, file);
+            return () -> {
+                reader.bind();
+                // The streamed section only holds part of the file, the next save writes it
+                fingerprints.remove(configuration);
+            };
+        }
+        ConfigurationSection section = readFile(file);
+        return () -> {
+            writeToFields(configuration, section);
+            markLoaded(configuration, section);
+        };
+    }
+
     @Override
     public ConfigurationSection readFile(File file) throws IOException, InvalidConfigurationException {
         FileConfiguration config = new YamlConfiguration();
@@ -127,36 +391,107 @@ public class DefaultConfigManager implements ConfigManager {
 
     public void writeToFile(File file, ConfigProfile ymlProfile, String path)
             throws IOException, InvalidConfigurationException {
+        FileSaveQueue.writeAtomically(file, merge(file, map(file, ymlProfile, path)));
+        if (fileWatcher != null)
+            fileWatcher.updateHash(file);
+    }
 
-        if (!file.exists()) {
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
-            file.createNewFile();
-        }
-
-        FileConfiguration config = (FileConfiguration) readFile(file);
+    /**
+     * Maps the profile into a new section and runs the save hooks, on the calling thread.
+     * The mapped section is only read from then on, so it can be merged into the file on any thread.
+     */
+    private MappedProfile map(File file, ConfigProfile ymlProfile, String path) {
+        YamlConfiguration root = new YamlConfiguration();
         if (ymlProfile.getConfiguration() != null)
             ymlProfile.getConfiguration().onPreMapping();
-        setProfileInSection(ymlProfile, config, path);
+        setProfileInSection(ymlProfile, root, path);
 
         if (ymlProfile.getConfiguration() != null) {
             ConfigurationSection section = null;
             if (path != null && !path.isEmpty()) {
-                section = config.getConfigurationSection(path);
+                section = root.getConfigurationSection(path);
                 if (section == null)
-                    section = config.createSection(path);
+                    section = root.createSection(path);
             }
 
             if (section == null)
-                section = config;
+                section = root;
             ymlProfile.getConfiguration().onSave(file, section);
         }
-        config.save(file);
+        detach(root);
+
+        String prefix = path == null || path.isEmpty() ? "" : path.endsWith(".") ? path : path + ".";
+        Set<String> paths = new HashSet<>();
+        for (String key : ymlProfile.getConfig().keySet())
+            paths.add(prefix + key);
+        return new MappedProfile(root, paths);
+    }
+
+    // Merges a mapped profile into the file's current content, the profile's paths replace what the file holds
+    private String merge(File file, MappedProfile mapped) throws IOException, InvalidConfigurationException {
+        FileConfiguration config = file.exists() ? (FileConfiguration) readFile(file) : new YamlConfiguration();
+        // Null fields aren't mapped, they remove their path
+        for (String path : mapped.paths)
+            if (mapped.root.get(path) == null)
+                config.set(path, null);
+        copyInto(mapped.root, config, "", mapped.paths);
+        return config.saveToString();
     }
 
+    private static void copyInto(ConfigurationSection from, ConfigurationSection to, String prefix, Set<String> replacedPaths) {
+        for (String key : from.getKeys(false)) {
+            String path = prefix + key;
+            Object value = from.get(key);
+            if (value instanceof ConfigurationSection) {
+                ConfigurationSection section = replacedPaths.contains(path) ? null : to.getConfigurationSection(key);
+                if (section == null)
+                    section = to.createSection(key);
+                copyInto((ConfigurationSection) value, section, path + ".", replacedPaths);
+            } else {
+                to.set(key, value);
+            }
 
+            List<String> comments = from.getComments(key);
+            if (!comments.isEmpty())
+                to.setComments(key, comments);
+            List<String> inlineComments = from.getInlineComments(key);
+            if (!inlineComments.isEmpty())
+                to.setInlineComments(key, inlineComments);
+        }
+    }
+
+    // Mappers may put a field's own collection in the section, it is copied so the save thread never reads it
+    private static void detach(ConfigurationSection section) {
+        for (String key : section.getKeys(false)) {
+            Object value = section.get(key);
+            if (value instanceof ConfigurationSection)
+                detach((ConfigurationSection) value);
+            else if (value instanceof Collection || value instanceof Map)
+                section.set(key, copyOf(value));
+        }
+    }
+
+    private static Object copyOf(Object value) {
+        if (value instanceof Set) {
+            Set<Object> copy = new LinkedHashSet<>();
+            for (Object element : (Set<?>) value)
+                copy.add(copyOf(element));
+            return copy;
+        }
+        if (value instanceof Collection) {
+            List<Object> copy = new ArrayList<>(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value)
+                copy.add(copyOf(element));
+            return copy;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                copy.put(entry.getKey(), copyOf(entry.getValue()));
+            return copy;
+        }
+        return value;
+    }
 
     @Override
     public void setProfileInSection(ConfigProfile configProfile, ConfigurationSection section, String path) {
@@ -174,13 +509,13 @@ public class DefaultConfigManager implements ConfigManager {
 
             // Collection of non-primitive elements
             if ((fieldClass == List.class || fieldClass == Set.class) &&
-                    !isPrimitive(ReflectionUtil.getGenericTypes(ymlValue.getField())[0])) {
+                    !isPrimitive(ymlValue.getGenericTypes()[0])) {
 
                 Collection<?> collection = (Collection<?>) ymlValue.getValue();
                 ConfigurationSection collSec = section.createSection(absolutePath);
 
                 if (collection != null) {
-                    Class<?> genericClass = ReflectionUtil.getGenericTypes(ymlValue.getField())[0];
+                    Class<?> genericClass = ymlValue.getGenericTypes()[0];
                     int i = 0;
                     for (Object o : collection) {
                         setObjectCorrectly(genericClass, o, collSec, String.valueOf(i++), mapper);
@@ -190,9 +525,9 @@ public class DefaultConfigManager implements ConfigManager {
             }
             // Map of non-primitive values
             else if (fieldClass == Map.class &&
-                    !isPrimitive(ReflectionUtil.getGenericTypes(ymlValue.getField())[1])) {
+                    !isPrimitive(ymlValue.getGenericTypes()[1])) {
 
-                Class<?>[] generics = ReflectionUtil.getGenericTypes(ymlValue.getField());
+                Class<?>[] generics = ymlValue.getGenericTypes();
                 if (generics[0] != String.class) {
                     new RuntimeException(
                             "Map key must be String at '" + ymlValue.getField().getName() + "'"
@@ -234,77 +569,55 @@ public class DefaultConfigManager implements ConfigManager {
             throws IllegalAccessException {
         if (section == null) return;
 
-        Class<?> clazz = configuration.getClass();
-        String currentSectionPath = "";
-
-        for (Field field : ReflectionUtil.getAnnotatedFields(clazz, Configuration.Field.class, Configuration.Section.class)) {
-            field.setAccessible(true);
-
-            // Handle @Configuration.Section
-            Configuration.Section sectionAnnotation = field.getAnnotation(Configuration.Section.class);
-            if (sectionAnnotation != null) {
-                String value = sectionAnnotation.value();
-                currentSectionPath = (value.isEmpty()) ? "" :
-                        value + (value.endsWith(".") ? "" : ".");
-            }
+        for (ConfigSchema.Entry entry : ConfigSchema.of(configuration.getClass()).getEntries()) {
+            if (!entry.isField()) continue;
 
-            Configuration.Field fieldAnnotation = field.getAnnotation(Configuration.Field.class);
-            if (fieldAnnotation == null) continue;
+            if (!writeToField(configuration, entry, section, entry.getPath(fieldPathConverter)))
+                return;
+        }
 
-            // Handle @Configuration.Mapper
-            Configuration.Mapper mapperAnnotation = field.getAnnotation(Configuration.Mapper.class);
-            String mapper = (mapperAnnotation != null) ? mapperAnnotation.value() : "";
+        configuration.onLoad(section);
+    }
 
-            String fieldPath = ConfigProfile.getFieldPath(fieldPathConverter, field, fieldAnnotation);
-            String absolutePath = currentSectionPath + fieldPath;
+    /**
+     * Reads a single field from the section and sets it.
+     *
+     * @return false if the field can't be mapped and loading should stop.
+     */
+    boolean writeToField(Configuration configuration, ConfigSchema.Entry entry, ConfigurationSection section,
+                         String absolutePath) throws IllegalAccessException {
+        Class<?> fieldClass = entry.getFieldClass();
+        String mapper = entry.getMapper();
 
-            // If it's a List/Set of non-primitives
-            if ((field.getType() == List.class || field.getType() == Set.class) &&
-                    !isPrimitive(ReflectionUtil.getGenericTypes(field)[0])) {
+        // If it's a List/Set of non-primitives
+        if ((fieldClass == List.class || fieldClass == Set.class) &&
+                !isPrimitive(entry.getGenericTypes()[0])) {
 
-                Collection<?> collection = getList(field, section, absolutePath, mapper);
-                field.set(configuration, collection);
+            Collection<?> collection = getList(entry, section, absolutePath, mapper);
+            entry.set(configuration, collection);
 
+        }
+        // If it's a Map<String, non-primitive>
+        else if (fieldClass == Map.class) {
+
+            Class<?>[] genericTypes = entry.getGenericTypes();
+            if (genericTypes[0] != String.class) {
+                new RuntimeException("Map key must be String at '" + entry.getField().getName() + "'")
+                        .printStackTrace();
+                return false;
             }
-            // If it's a Map<String, non-primitive>
-            else if (field.getType() == Map.class) {
-
-                Class<?>[] genericTypes = ReflectionUtil.getGenericTypes(field);
-                if (genericTypes[0] != String.class) {
-                    new RuntimeException("Map key must be String at '" + field.getName() + "'")
-                            .printStackTrace();
-                    return;
-                }
-                Map<String, ?> map = getMap(genericTypes[1], section, absolutePath, mapper);
-                field.set(configuration, map);
+            Map<String, ?> map = getMap(genericTypes[1], section, absolutePath, mapper);
+            entry.set(configuration, map);
 
-            } else {
-                Object value = getObjectCorrectly(field.getType(), mapper, section, absolutePath);
-                if (value == null && field.getType().isPrimitive()) {
-                    if (field.getType().equals(boolean.class)) {
-                        value = false;
-                    } else if (field.getType().equals(int.class)) {
-                        value = 0;
-                    } else if (field.getType().equals(double.class)) {
-                        value = 0.0;
-                    } else if (field.getType().equals(float.class)) {
-                        value = 0.0f;
-                    } else if (field.getType().equals(long.class)) {
-                        value = 0L;
-                    } else if (field.getType().equals(short.class)) {
-                        value = (short) 0;
-                    } else if (field.getType().equals(byte.class)) {
-                        value = (byte) 0;
-                    } else if (field.getType().equals(char.class)) {
-                        value = '\u0000';
-                    }
-                }
-
-                field.set(configuration, value);
-            }
+        } else {
+            Object value = getObjectCorrectly(fieldClass, mapper, section, absolutePath);
+            // Missing primitives are set to zero / false
+            if (value == null)
+                entry.setDefault(configuration);
+            else
+                entry.set(configuration, value);
         }
-
-        configuration.onLoad(section);
+        return true;
     }
 
     /* -------------------------------------------------
@@ -368,11 +681,11 @@ public class DefaultConfigManager implements ConfigManager {
     }
 
     // Build a List/Set of complex objects
-    private <T> Collection<T> getList(Field field, ConfigurationSection section,
+    private <T> Collection<T> getList(ConfigSchema.Entry entry, ConfigurationSection section,
                                       String path, String mapper) {
-        Class<T> genericClass = (Class<T>) ReflectionUtil.getGenericTypes(field)[0];
+        Class<T> genericClass = (Class<T>) entry.getGenericTypes()[0];
         Collection<T> collection;
-        if (field.getType() == List.class) {
+        if (entry.getFieldClass() == List.class) {
             collection = new ArrayList<>();
         } else {
             collection = new LinkedHashSet<>();
@@ -403,7 +716,7 @@ public class DefaultConfigManager implements ConfigManager {
     }
 
     // Checks if it's considered primitive
-    private boolean isPrimitive(Class<?> clazz) {
+    static boolean isPrimitive(Class<?> clazz) {
         return clazz.isPrimitive() || PRIMITIVE_CLASSES.contains(clazz);
     }
 
@@ -416,4 +729,21 @@ public class DefaultConfigManager implements ConfigManager {
     public FieldPathConverter getFieldPathConverter() {
         return fieldPathConverter;
     }
+
+    // A parsed config file, bound to its configuration's fields on the thread the configuration is used on
+    private interface ParsedConfig {
+        void bind() throws IllegalAccessException;
+    }
+
+    // A profile mapped on the calling thread, and the paths it replaces in the file
+    private static final class MappedProfile {
+
+        private final ConfigurationSection root;
+        private final Set<String> paths;
+
+        private MappedProfile(ConfigurationSection root, Set<String> paths) {
+            this.root = root;
+            this.paths = paths;
+        }
+    }
 }
@@ -0,0 +1,389 @@
+package dev.splityosis.sysengine.configlib.manager;
+
+import dev.splityosis.sysengine.configlib.bukkit.ConfigurationSection;
+import dev.splityosis.sysengine.configlib.bukkit.InvalidConfigurationException;
+import dev.splityosis.sysengine.configlib.bukkit.file.YamlConfiguration;
+import dev.splityosis.sysengine.configlib.configuration.ConfigSchema;
+import dev.splityosis.sysengine.configlib.configuration.Configuration;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads a config file straight into the fields of a {@link Configuration} from YAML parser events,
+ * without building a {@link ConfigurationSection} tree of the whole file, see {@link ConfigOptions#setStreamingReads(boolean)}.
+ * <p>
+ * Only the nodes of annotated fields are read, everything else is skipped as it is parsed.
+ * Scalars and lists of primitives are set on their fields directly. Fields that need a mapper
+ * (or hold lists or maps of complex values) have only their own node built into a small section, and are read from it as usual.
+ * <p>
+ * Files that use aliases, merge keys, explicit tags or serialized objects, and configurations that override
+ * {@link Configuration#onLoad} (which may read any key of the file), are read through {@link ConfigManager#readFile} instead.
+ * <p>
+ * Reading is split in two: {@link #parse} can run on any thread and never touches the configuration,
+ * {@link #bind} then sets the fields on the thread the configuration is used on.
+ */
+final class StreamingConfigReader {
+
+    private static final Resolver RESOLVER = new Resolver();
+    private static final Map<String, Boolean> BOOLEANS = new HashMap<>();
+
+    static {
+        BOOLEANS.put("yes", true);
+        BOOLEANS.put("no", false);
+        BOOLEANS.put("true", true);
+        BOOLEANS.put("false", false);
+        BOOLEANS.put("on", true);
+        BOOLEANS.put("off", false);
+    }
+
+    private final DefaultConfigManager manager;
+    private final Configuration configuration;
+    private final Map<String, Binding> bindings = new HashMap<>();
+    private final List<Binding> orderedBindings = new ArrayList<>();
+    private final Set<String> parentPaths = new HashSet<>();
+    private final YamlConfiguration partial = new YamlConfiguration();
+    private Iterator<Event> events;
+    // The whole file, when it is read through the full reader instead
+    private ConfigurationSection fullSection;
+
+    private StreamingConfigReader(DefaultConfigManager manager, Configuration configuration) {
+        this.manager = manager;
+        this.configuration = configuration;
+
+        for (ConfigSchema.Entry entry : ConfigSchema.of(configuration.getClass()).getEntries()) {
+            if (!entry.isField()) continue;
+
+            String absolutePath = entry.getPath(manager.getFieldPathConverter());
+            Binding binding = new Binding(entry, absolutePath, kindOf(entry));
+            orderedBindings.add(binding);
+            Binding existing = bindings.putIfAbsent(absolutePath, binding);
+            // Fields sharing a path are all read from the built node
+            if (existing != null) {
+                existing.kind = Kind.SECTION;
+                binding.kind = Kind.SECTION;
+            }
+
+            for (int i = absolutePath.indexOf('.'); i != -1; i = absolutePath.indexOf('.', i + 1))
+                parentPaths.add(absolutePath.substring(0, i + 1));
+        }
+    }
+
+    /**
+     * Parses the file, without setting any field yet.
+     */
+    static StreamingConfigReader parse(DefaultConfigManager manager, Configuration configuration, File file)
+            throws IOException, InvalidConfigurationException {
+        StreamingConfigReader reader = new StreamingConfigReader(manager, configuration);
+        if (overridesOnLoad(configuration)) {
+            reader.fullSection = manager.readFile(file);
+            return reader;
+        }
+
+        try (Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            reader.stream(in);
+        } catch (UnsupportedYamlException e) {
+            reader.fullSection = manager.readFile(file);
+        } catch (YAMLException e) {
+            throw new InvalidConfigurationException(e);
+        }
+        return reader;
+    }
+
+    /**
+     * Sets the parsed values on the configuration's fields and calls {@link Configuration#onLoad}.
+     */
+    void bind() throws IllegalAccessException {
+        if (fullSection != null) {
+            manager.writeToFields(configuration, fullSection);
+            return;
+        }
+
+        for (Binding binding : orderedBindings) {
+            if (binding.isRead)
+                binding.entry.set(configuration, binding.entry.getFieldClass().isEnum()
+                        ? toEnum(binding.entry.getFieldClass(), String.valueOf(binding.value)) : binding.value);
+            else if (!manager.writeToField(configuration, binding.entry, partial, binding.path))
+                return;
+        }
+        configuration.onLoad(partial);
+    }
+
+    private void stream(Reader in) throws InvalidConfigurationException {
+        events = createYaml().parse(in).iterator();
+        while (events.hasNext()) {
+            Event event = events.next();
+            if (event instanceof MappingStartEvent) {
+                readMapping("");
+                return;
+            }
+            if (event instanceof ScalarEvent && resolveScalar((ScalarEvent) event) == null)
+                return;
+            if (event instanceof NodeEvent)
+                throw new InvalidConfigurationException("Top level is not a Map.");
+        }
+    }
+
+    private void readMapping(String prefix) throws InvalidConfigurationException {
+        while (true) {
+            Event keyEvent = next();
+            if (keyEvent instanceof MappingEndEvent)
+                return;
+
+            String path = prefix + keyOf(keyEvent);
+            Event valueEvent = next();
+            Binding binding = bindings.get(path);
+            if (binding != null)
+                read(binding, valueEvent);
+            else if (valueEvent instanceof MappingStartEvent && parentPaths.contains(path + "."))
+                readMapping(path + ".");
+            else
+                skip(valueEvent);
+        }
+    }
+
+    private void read(Binding binding, Event event) throws InvalidConfigurationException {
+        if (binding.kind == Kind.SCALAR && event instanceof ScalarEvent) {
+            Object value = resolveScalar((ScalarEvent) event);
+            // Missing values are left to the usual defaults
+            if (value == null)
+                return;
+            binding.value = value;
+            binding.isRead = true;
+        }
+        else if (binding.kind == Kind.PRIMITIVE_COLLECTION && event instanceof SequenceStartEvent) {
+            binding.value = readSequence();
+            binding.isRead = true;
+        }
+        else {
+            Object value = build(event);
+            if (value instanceof Map)
+                partial.createSection(binding.path, (Map<?, ?>) value);
+            else
+                partial.set(binding.path, value);
+        }
+    }
+
+    private Object build(Event event) throws InvalidConfigurationException {
+        if (event instanceof ScalarEvent)
+            return resolveScalar((ScalarEvent) event);
+        if (event instanceof SequenceStartEvent)
+            return readSequence();
+        if (event instanceof MappingStartEvent) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            while (true) {
+                Event keyEvent = next();
+                if (keyEvent instanceof MappingEndEvent)
+                    return map;
+                if (!(keyEvent instanceof ScalarEvent))
+                    throw new UnsupportedYamlException();
+                Object key = resolveScalar((ScalarEvent) keyEvent);
+                // Serialized objects are deserialized by the full reader
+                if ("==".equals(key))
+                    throw new UnsupportedYamlException();
+                map.put(key, build(next()));
+            }
+        }
+        throw new UnsupportedYamlException();
+    }
+
+    private List<Object> readSequence() throws InvalidConfigurationException {
+        List<Object> list = new ArrayList<>();
+        while (true) {
+            Event event = next();
+            if (event instanceof SequenceEndEvent)
+                return list;
+            list.add(build(event));
+        }
+    }
+
+    private void skip(Event event) throws InvalidConfigurationException {
+        if (!(event instanceof CollectionStartEvent))
+            return;
+        int depth = 1;
+        while (depth > 0) {
+            Event next = next();
+            if (next instanceof CollectionStartEvent)
+                depth++;
+            else if (next instanceof CollectionEndEvent)
+                depth--;
+        }
+    }
+
+    private String keyOf(Event keyEvent) throws InvalidConfigurationException {
+        if (!(keyEvent instanceof ScalarEvent))
+            throw new UnsupportedYamlException();
+        ScalarEvent scalar = (ScalarEvent) keyEvent;
+        // Merge keys can add values to any path of the mapping
+        if (scalar.getImplicit().canOmitTagInPlainScalar() && RESOLVER.resolve(NodeId.scalar, scalar.getValue(), true).equals(Tag.MERGE))
+            throw new UnsupportedYamlException();
+        return String.valueOf(resolveScalar(scalar));
+    }
+
+    private Event next() throws InvalidConfigurationException {
+        if (!events.hasNext())
+            throw new InvalidConfigurationException("Unexpected end of the YAML stream");
+        // Aliases end up in build(), which leaves them to the full reader
+        return events.next();
+    }
+
+    // Resolves a scalar the same way SafeConstructor does
+    private static Object resolveScalar(ScalarEvent event) {
+        String value = event.getValue();
+        if (!event.getImplicit().canOmitTagInPlainScalar()) {
+            if (event.getImplicit().canOmitTagInNonPlainScalar() || Tag.STR.getValue().equals(event.getTag()))
+                return value;
+            throw new UnsupportedYamlException();
+        }
+
+        Tag tag = RESOLVER.resolve(NodeId.scalar, value, true);
+        if (tag.equals(Tag.STR))
+            return value;
+        if (tag.equals(Tag.NULL))
+            return null;
+        if (tag.equals(Tag.BOOL))
+            return BOOLEANS.get(value.toLowerCase(Locale.ROOT));
+        if (tag.equals(Tag.INT))
+            return parseInt(value);
+        if (tag.equals(Tag.FLOAT))
+            return parseFloat(value);
+        throw new UnsupportedYamlException();
+    }
+
+    private static Object parseInt(String text) {
+        String value = text.replace("_", "");
+        String sign = "";
+        if (value.startsWith("-") || value.startsWith("+")) {
+            sign = value.charAt(0) == '-' ? "-" : "";
+            value = value.substring(1);
+        }
+        if (value.indexOf(':') != -1)
+            throw new UnsupportedYamlException();
+
+        int radix = 10;
+        if (value.equals("0"))
+            return 0;
+        else if (value.startsWith("0b")) {
+            value = value.substring(2);
+            radix = 2;
+        }
+        else if (value.startsWith("0x")) {
+            value = value.substring(2);
+            radix = 16;
+        }
+        else if (value.startsWith("0")) {
+            value = value.substring(1);
+            radix = 8;
+        }
+
+        String number = sign + value;
+        try {
+            return Integer.valueOf(number, radix);
+        } catch (NumberFormatException e) {
+            try {
+                return Long.valueOf(number, radix);
+            } catch (NumberFormatException e1) {
+                return new BigInteger(number, radix);
+            }
+        }
+    }
+
+    private static Object parseFloat(String text) {
+        String value = text.replace("_", "");
+        int sign = 1;
+        if (value.startsWith("-") || value.startsWith("+")) {
+            sign = value.charAt(0) == '-' ? -1 : 1;
+            value = value.substring(1);
+        }
+        String lowerCase = value.toLowerCase(Locale.ROOT);
+        if (lowerCase.equals(".inf"))
+            return sign == -1 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        if (lowerCase.equals(".nan"))
+            return Double.NaN;
+        if (value.indexOf(':') != -1)
+            throw new UnsupportedYamlException();
+        return Double.valueOf(value) * sign;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object toEnum(Class<?> type, String value) {
+        return Enum.valueOf((Class<Enum>) type, value);
+    }
+
+    private Kind kindOf(ConfigSchema.Entry entry) {
+        Class<?> type = entry.getFieldClass();
+        if (manager.getMapperRegistry().getMapper(type, entry.getMapper()) != null)
+            return Kind.SECTION;
+        // Sets are left to the full reader, which assigns them the same way
+        if (type == List.class) {
+            Class<?>[] genericTypes = entry.getGenericTypes();
+            return genericTypes.length > 0 && DefaultConfigManager.isPrimitive(genericTypes[0]) ? Kind.PRIMITIVE_COLLECTION : Kind.SECTION;
+        }
+        if (type != Map.class && (type.isEnum() || DefaultConfigManager.isPrimitive(type)))
+            return Kind.SCALAR;
+        return Kind.SECTION;
+    }
+
+    private static boolean overridesOnLoad(Configuration configuration) {
+        try {
+            return configuration.getClass().getMethod("onLoad", ConfigurationSection.class).getDeclaringClass() != Configuration.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    // Newer SnakeYAML versions limit documents to 3MB unless told otherwise, older versions don't have LoaderOptions at all
+    private static Yaml createYaml() {
+        try {
+            Class<?> optionsClass = Class.forName("org.yaml.snakeyaml.LoaderOptions");
+            Object options = optionsClass.getConstructor().newInstance();
+            try {
+                optionsClass.getMethod("setCodePointLimit", int.class).invoke(options, Integer.MAX_VALUE);
+            } catch (NoSuchMethodException ignored) {}
+            return Yaml.class.getConstructor(optionsClass).newInstance(options);
+        } catch (ReflectiveOperationException e) {
+            return new Yaml();
+        }
+    }
+
+    private enum Kind {
+        // Scalars set straight on the field
+        SCALAR,
+        // Lists of primitives set straight on the field
+        PRIMITIVE_COLLECTION,
+        // Anything else, the node is built into the partial section and read by the manager
+        SECTION
+    }
+
+    private static final class Binding {
+
+        private final ConfigSchema.Entry entry;
+        private final String path;
+        private Kind kind;
+        // Values set straight on the field, anything else is read from the partial section
+        private Object value;
+        private boolean isRead = false;
+
+        private Binding(ConfigSchema.Entry entry, String path, Kind kind) {
+            this.entry = entry;
+            this.path = path;
+            this.kind = kind;
+        }
+    }
+
+    // Thrown for YAML features that are left to the full reader
+    private static final class UnsupportedYamlException extends RuntimeException {
+
+        private UnsupportedYamlException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -13,18 +13,42 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Maps {@link Actions} from either a list of actions, or a section of action types to parameters.
+ * Rate limited actions are a section holding the list under {@code actions}, along with their
+ * {@code cooldown} and {@code debounce} windows in ticks:
+ * <pre>
+ * on-click:
+ *   cooldown: 20
+ *   debounce: 5
+ *   actions:
+ *   - sendMessage: '&aClicked!'
+ * </pre>
+ */
 public class ActionsMapper implements AbstractMapper<Actions> {
 
+    private static final String ACTIONS_KEY = "actions";
+    private static final String COOLDOWN_KEY = "cooldown";
+    private static final String DEBOUNCE_KEY = "debounce";
+
     @Override
     public Actions getFromConfig(ConfigManager manager, ConfigurationSection section, String path) {
 
+        if (section.isConfigurationSection(path) && section.isList(path + "." + ACTIONS_KEY)) {
+            ConfigurationSection rateLimitedSection = section.getConfigurationSection(path);
+            Actions actions = getFromConfig(manager, rateLimitedSection, ACTIONS_KEY);
+            actions.setCooldown(rateLimitedSection.getInt(COOLDOWN_KEY, 0));
+            actions.setDebounce(rateLimitedSection.getInt(DEBOUNCE_KEY, 0));
+            return actions;
+        }
+
         if (section.isList(path)) {
             List<?> list = section.getList(path);
 
             if (list == null || list.isEmpty())
                 return new Actions();
 
-            return ActionsParser.parseActions(list);
+            return ActionsParser.parseActions(list, path);
         }
 
         else if (section.isConfigurationSection(path)) {
@@ -37,7 +61,7 @@ public class ActionsMapper implements AbstractMapper<Actions> {
             if (list.isEmpty())
                 return new Actions();
 
-            return ActionsParser.parseActions(list);
+            return ActionsParser.parseActions(list, path);
         }
 
         else
@@ -51,7 +75,17 @@ public class ActionsMapper implements AbstractMapper<Actions> {
         for (ActionDefinition actionDefinition : instance.getActionDefinitions())
             list.add(Collections.singletonMap(actionDefinition.getActionType(), paramsToString(actionDefinition.getParameters())));
 
-        section.set(path, list);
+        if (instance.getCooldown() == 0 && instance.getDebounce() == 0) {
+            section.set(path, list);
+            return;
+        }
+
+        ConfigurationSection rateLimitedSection = section.createSection(path);
+        if (instance.getCooldown() > 0)
+            rateLimitedSection.set(COOLDOWN_KEY, instance.getCooldown());
+        if (instance.getDebounce() > 0)
+            rateLimitedSection.set(DEBOUNCE_KEY, instance.getDebounce());
+        rateLimitedSection.set(ACTIONS_KEY, list);
     }
 
     private static String paramsToString(List<String> params) {
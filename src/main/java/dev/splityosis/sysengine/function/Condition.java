@@ -48,6 +48,14 @@ public class Condition {
         return conditionOperator.compare(leftVal, rightVal);
     }
 
+    /**
+     * Creates a copy of this condition that evaluates independently of it.
+     * Expressions hold their variables while evaluating, so a condition can't be evaluated by two threads at once.
+     */
+    public Condition copy() {
+        return new Condition(variableName, conditionOperator, new Expression(rightExpression));
+    }
+
     /**
      * Parse a string like "level < 10" or "level >= 20" into a Condition.
      */
@@ -0,0 +1,82 @@
+package dev.splityosis.sysengine.plugin.commands;
+
+import dev.splityosis.sysengine.actions.ActionTypeMetrics;
+import dev.splityosis.sysengine.actions.CommandDispatcher;
+import dev.splityosis.sysengine.commandlib.arguments.IntegerArgument;
+import dev.splityosis.sysengine.commandlib.command.Command;
+import dev.splityosis.sysengine.utils.ColorUtil;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class ActionStatsCommand extends Command {
+
+    private static final int DEFAULT_AMOUNT = 10;
+
+    public ActionStatsCommand() {
+        super("stats", "metrics");
+        description("Lists the slowest ActionTypes by p99 execution time and the command dispatcher metrics, starts recording ActionType metrics if they aren't");
+        optionalArguments(new IntegerArgument("amount"));
+        executes((sender, context) -> {
+            int amount = (int) context.getArgOrDefault("amount", DEFAULT_AMOUNT);
+            showSlowestActionTypes(sender, amount);
+        });
+    }
+
+    private void showSlowestActionTypes(CommandSender sender, int amount) {
+        showCommandDispatcher(sender);
+
+        // Recording times every action, so it only starts once someone asks for the metrics
+        if (!ActionTypeMetrics.isEnabled()) {
+            ActionTypeMetrics.setEnabled(true);
+            sender.sendMessage(ColorUtil.colorize("&aActionType metrics are now recorded, run this command again later to see them."));
+            return;
+        }
+
+        List<ActionTypeMetrics> metricsList = new ArrayList<>();
+        for (ActionTypeMetrics metrics : ActionTypeMetrics.getAll())
+            if (metrics.getInvocations() > 0)
+                metricsList.add(metrics);
+
+        if (metricsList.isEmpty()) {
+            sender.sendMessage(ColorUtil.colorize("&cNo ActionTypes were executed yet."));
+            return;
+        }
+
+        metricsList.sort(Comparator.comparingLong(ActionTypeMetrics::getP99Nanos).reversed()
+                .thenComparing(Comparator.comparingLong(ActionTypeMetrics::getMainThreadNanos).reversed()));
+
+        int shown = Math.min(Math.max(amount, 1), metricsList.size());
+        sender.sendMessage(ColorUtil.colorize("&aSlowest ActionTypes (" + shown + " of " + metricsList.size() + "):"));
+        for (ActionTypeMetrics metrics : metricsList.subList(0, shown)) {
+            sender.sendMessage(ColorUtil.colorize("&b- " + metrics.getActionType().getName()
+                    + " &7calls: &f" + metrics.getInvocations()
+                    + " &7failures: &f" + metrics.getFailures()
+                    + " &7p50: &f" + formatNanos(metrics.getP50Nanos())
+                    + " &7p99: &f" + formatNanos(metrics.getP99Nanos())
+                    + " &7main thread: &f" + formatNanos(metrics.getMainThreadNanos())));
+        }
+    }
+
+    private void showCommandDispatcher(CommandSender sender) {
+        if (CommandDispatcher.getDispatched() == 0 && CommandDispatcher.getQueueDepth() == 0)
+            return;
+        sender.sendMessage(ColorUtil.colorize("&aCommand dispatcher &7queued: &f" + CommandDispatcher.getQueueDepth()
+                + " &7peak: &f" + CommandDispatcher.getPeakQueueDepth()
+                + " &7dispatched: &f" + CommandDispatcher.getDispatched()
+                + " &7deferred: &f" + CommandDispatcher.getDeferred()
+                + " &7merged: &f" + CommandDispatcher.getMerged()
+                + " &7avg latency: &f" + formatNanos(CommandDispatcher.getAverageLatencyNanos())
+                + " &7max latency: &f" + formatNanos(CommandDispatcher.getMaxLatencyNanos())));
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000)
+            return nanos + "ns";
+        if (nanos < 1_000_000)
+            return String.format("%.1fµs", nanos / 1_000.0);
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+}
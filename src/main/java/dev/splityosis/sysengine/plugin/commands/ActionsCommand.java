@@ -9,7 +9,7 @@ public class ActionsCommand extends Command {
         permission("sysengine.command.actions");
         description("Actions command branch");
 
-        addSubCommands(new ActionTypeCommand());
+        addSubCommands(new ActionTypeCommand(), new ActionStatsCommand());
 
     }
 }
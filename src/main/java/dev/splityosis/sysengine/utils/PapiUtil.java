@@ -1,12 +1,18 @@
 package dev.splityosis.sysengine.utils;
 
+import dev.splityosis.sysengine.SYSEngine;
 import me.clip.placeholderapi.PlaceholderAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for interacting with PlaceholderAPI.
@@ -16,16 +22,109 @@ import java.util.stream.Collectors;
  */
 public class PapiUtil {
 
+    private static final String PAPI_PLUGIN_NAME = "PlaceholderAPI";
+    private static final Object NO_PLAYER = new Object();
+
+    private static volatile boolean isInitialized = false;
+    private static volatile boolean papiAvailable = false;
+
+    // (player, placeholder) -> result, cleared every tick
+    private static final Map<Object, Map<String, String>> tickMemo = new ConcurrentHashMap<>();
+
     private PapiUtil() {
     }
 
+    /**
+     * Initializes the cached PlaceholderAPI state and the per-tick placeholder memo.
+     * You should never call this, look at {@link SYSEngine#initialize(JavaPlugin)}.
+     *
+     * @param plugin The plugin initializing the libraries
+     */
+    public static void initialize(JavaPlugin plugin) {
+        if (isInitialized) return;
+
+        papiAvailable = Bukkit.getPluginManager().isPluginEnabled(PAPI_PLUGIN_NAME);
+        plugin.getServer().getPluginManager().registerEvents(new PapiStateListener(), plugin);
+        Bukkit.getScheduler().runTaskTimer(plugin, tickMemo::clear, 1, 1);
+        isInitialized = true;
+    }
+
     /**
      * Checks if PlaceholderAPI is currently installed and enabled.
+     * Once initialized, this is a cached value kept up to date by plugin enable/disable events.
      *
      * @return {@code true} if PlaceholderAPI is enabled, {@code false} otherwise.
      */
     public static boolean isPapiAvailable() {
-        return Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI");
+        if (isInitialized)
+            return papiAvailable;
+        return Bukkit.getPluginManager().isPluginEnabled(PAPI_PLUGIN_NAME);
+    }
+
+    /**
+     * Parses placeholders in every string for the specified Player in one call.
+     * Identical placeholders are resolved once per player per tick, so rendering
+     * the same {@code %placeholder%} many times in a tick only calls PlaceholderAPI once.
+     * If PlaceholderAPI is unavailable, the strings are returned unchanged.
+     *
+     * @param player The Player context for parsing, can be null.
+     * @param texts  The strings containing placeholders.
+     * @return A list of the parsed strings, in the iteration order of {@code texts}.
+     */
+    public static List<String> parsePlaceholdersBatch(Player player, Collection<String> texts) {
+        List<String> parsed = new ArrayList<>(texts.size());
+        if (!isPapiAvailable()) {
+            parsed.addAll(texts);
+            return parsed;
+        }
+
+        // Without the tick task clearing it, the memo would never expire
+        if (!isInitialized) {
+            for (String text : texts)
+                parsed.add(text == null ? null : PlaceholderAPI.setPlaceholders(player, text));
+            return parsed;
+        }
+
+        Map<String, String> memo = tickMemo.computeIfAbsent(player == null ? NO_PLAYER : player.getUniqueId(), k -> new ConcurrentHashMap<>());
+        StringBuilder builder = new StringBuilder();
+        for (String text : texts)
+            parsed.add(text == null ? null : parseMemoized(player, text, memo, builder));
+        return parsed;
+    }
+
+    private static String parseMemoized(Player player, String text, Map<String, String> memo, StringBuilder builder) {
+        int open = text.indexOf('%');
+        if (open == -1)
+            return text;
+
+        builder.setLength(0);
+        int copied = 0;
+        while (open != -1) {
+            int close = text.indexOf('%', open + 1);
+            if (close == -1)
+                break;
+
+            // PlaceholderAPI placeholders are always %identifier_params%
+            int underscore = text.indexOf('_', open + 1);
+            if (underscore == -1 || underscore > close) {
+                open = close;
+                continue;
+            }
+
+            String placeholder = text.substring(open, close + 1);
+            String value = memo.get(placeholder);
+            if (value == null) {
+                value = PlaceholderAPI.setPlaceholders(player, placeholder);
+                memo.put(placeholder, value);
+            }
+
+            builder.append(text, copied, open).append(value);
+            copied = close + 1;
+            open = text.indexOf('%', copied);
+        }
+        if (copied == 0)
+            return text;
+        return builder.append(text, copied, text.length()).toString();
     }
 
     /**
@@ -68,7 +167,10 @@ public class PapiUtil {
      */
     public static List<String> parsePlaceholders(Player player, List<String> lines) {
         if (isPapiAvailable() && lines != null) {
-            return lines.stream().map(line -> parsePlaceholders(player, line)).collect(Collectors.toList());
+            List<String> parsed = new ArrayList<>(lines.size());
+            for (String line : lines)
+                parsed.add(line == null ? null : PlaceholderAPI.setPlaceholders(player, line));
+            return parsed;
         }
         return lines;
     }
@@ -83,7 +185,10 @@ public class PapiUtil {
      */
     public static List<String> parsePlaceholders(OfflinePlayer player, List<String> lines) {
         if (isPapiAvailable() && lines != null) {
-            return lines.stream().map(line -> parsePlaceholders(player, line)).collect(Collectors.toList());
+            List<String> parsed = new ArrayList<>(lines.size());
+            for (String line : lines)
+                parsed.add(line == null ? null : PlaceholderAPI.setPlaceholders(player, line));
+            return parsed;
         }
         return lines;
     }
@@ -115,7 +220,10 @@ public class PapiUtil {
      */
     public static List<String> parseRelationalPlaceholders(Player one, Player two, List<String> lines) {
         if (isPapiAvailable() && lines != null) {
-            return lines.stream().map(line -> parseRelationalPlaceholders(one, two, line)).collect(Collectors.toList());
+            List<String> parsed = new ArrayList<>(lines.size());
+            for (String line : lines)
+                parsed.add(line == null ? null : PlaceholderAPI.setRelationalPlaceholders(one, two, line));
+            return parsed;
         }
         return lines;
     }
@@ -160,7 +268,10 @@ public class PapiUtil {
      */
     public static List<String> parseBracketPlaceholders(Player player, List<String> lines) {
         if (isPapiAvailable() && lines != null) {
-            return lines.stream().map(line -> parseBracketPlaceholders(player, line)).collect(Collectors.toList());
+            List<String> parsed = new ArrayList<>(lines.size());
+            for (String line : lines)
+                parsed.add(line == null ? null : PlaceholderAPI.setBracketPlaceholders(player, line));
+            return parsed;
         }
         return lines;
     }
@@ -175,8 +286,28 @@ public class PapiUtil {
      */
     public static List<String> parseBracketPlaceholders(OfflinePlayer player, List<String> lines) {
         if (isPapiAvailable() && lines != null) {
-            return lines.stream().map(line -> parseBracketPlaceholders(player, line)).collect(Collectors.toList());
+            List<String> parsed = new ArrayList<>(lines.size());
+            for (String line : lines)
+                parsed.add(line == null ? null : PlaceholderAPI.setBracketPlaceholders(player, line));
+            return parsed;
         }
         return lines;
     }
+
+    private static class PapiStateListener implements Listener {
+
+        @EventHandler
+        public void onPluginEnable(PluginEnableEvent event) {
+            if (event.getPlugin().getName().equals(PAPI_PLUGIN_NAME))
+                papiAvailable = true;
+        }
+
+        @EventHandler
+        public void onPluginDisable(PluginDisableEvent event) {
+            if (event.getPlugin().getName().equals(PAPI_PLUGIN_NAME)) {
+                papiAvailable = false;
+                tickMemo.clear();
+            }
+        }
+    }
 }
@@ -0,0 +1,209 @@
+package dev.splityosis.sysengine.configlib.manager;
+
+import dev.splityosis.sysengine.configlib.ConfigLib;
+import dev.splityosis.sysengine.configlib.bukkit.ConfigurationSection;
+import dev.splityosis.sysengine.configlib.bukkit.InvalidConfigurationException;
+import dev.splityosis.sysengine.configlib.configuration.AbstractMapper;
+import dev.splityosis.sysengine.configlib.configuration.Configuration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads the same files through {@link StreamingConfigReader} and through {@link ConfigManager#readFile},
+ * and checks both leave the configuration's fields the same.
+ */
+class StreamingConfigReaderTest {
+
+    @TempDir
+    File directory;
+
+    @BeforeAll
+    static void registerMapper() {
+        ConfigLib.getMapperRegistry().registerMapper(new PointMapper());
+    }
+
+    @Test
+    void integers() throws Exception {
+        assertSameFields(
+                "count: 017\n" +
+                "big: 0x1F\n" +
+                "amount: 1_000\n" +
+                "negative: -42\n" +
+                "huge: 12345678901\n" +
+                "raw: [017, 0x1F, 0b101, -0b101, 1_000, +12, 0, 12345678901, 123456789012345678901234567890]\n");
+    }
+
+    @Test
+    void booleans() throws Exception {
+        assertSameFields(
+                "flag: yes\n" +
+                "other: off\n" +
+                "raw: [yes, no, on, off, True, FALSE, y, n, 'yes']\n");
+    }
+
+    @Test
+    void floats() throws Exception {
+        assertSameFields(
+                "ratio: .inf\n" +
+                "rate: -.inf\n" +
+                "nested:\n" +
+                "  ratio: .nan\n" +
+                "raw: [.inf, -.Inf, .NaN, 1.5, -2.5e3, 1_000.5, +.5]\n");
+    }
+
+    @Test
+    void strings() throws Exception {
+        assertSameFields(
+                "name: '017'\n" +
+                "label: \"0x1F\"\n" +
+                "raw: [~, null, '', plain text, '1.5', \"on\", 1.2.3]\n");
+    }
+
+    @Test
+    void enums() throws Exception {
+        assertSameFields(
+                "mode: HARD\n" +
+                "nested:\n" +
+                "  mode: EASY\n");
+    }
+
+    @Test
+    void nestedMappedSections() throws Exception {
+        assertSameFields(
+                "nested:\n" +
+                "  ratio: 0.25\n" +
+                "  point: {x: 0x10, y: -3}\n" +
+                "  points:\n" +
+                "    - {x: 1, y: 2}\n" +
+                "    - {x: 017, y: 1_000}\n" +
+                "  named:\n" +
+                "    first: {x: 5, y: 6}\n" +
+                "    second:\n" +
+                "      x: 7\n" +
+                "      y: 8\n" +
+                "point:\n" +
+                "  x: 9\n" +
+                "  y: 10\n" +
+                "unread:\n" +
+                "  point: {x: 11, y: 12}\n" +
+                "  list: [1, 2, 3]\n");
+    }
+
+    @Test
+    void missingValues() throws Exception {
+        assertSameFields(
+                "count: ~\n" +
+                "nested: {}\n");
+    }
+
+    private void assertSameFields(String yaml) throws Exception {
+        File file = new File(directory, "config.yml");
+        Files.write(file.toPath(), yaml.getBytes(StandardCharsets.UTF_8));
+
+        CountingConfigManager manager = new CountingConfigManager();
+        TestConfig expected = new TestConfig();
+        manager.writeToFields(expected, manager.readFile(file));
+
+        manager.reads = 0;
+        TestConfig actual = new TestConfig();
+        StreamingConfigReader.parse(manager, actual, file).bind();
+        // Falling back to the full reader would compare it with itself
+        assertEquals(0, manager.reads, "The streaming reader fell back to the full reader");
+
+        for (java.lang.reflect.Field field : TestConfig.class.getDeclaredFields())
+            assertEquals(field.get(expected), field.get(actual), field.getName());
+    }
+
+    private static final class CountingConfigManager extends DefaultConfigManager {
+
+        private int reads;
+
+        @Override
+        public ConfigurationSection readFile(File file) throws IOException, InvalidConfigurationException {
+            reads++;
+            return super.readFile(file);
+        }
+    }
+
+    enum Mode { EASY, HARD }
+
+    static final class Point {
+
+        private final int x;
+        private final int y;
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Point && ((Point) o).x == x && ((Point) o).y == y;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * x + y;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + x + ", " + y + ")";
+        }
+    }
+
+    static final class PointMapper implements AbstractMapper<Point> {
+
+        @Override
+        public Point getFromConfig(ConfigManager manager, ConfigurationSection section, String path) {
+            ConfigurationSection pointSection = section.getConfigurationSection(path);
+            if (pointSection == null)
+                return null;
+            return new Point(pointSection.getInt("x", 0), pointSection.getInt("y", 0));
+        }
+
+        @Override
+        public void setInConfig(ConfigManager manager, Point instance, ConfigurationSection section, String path) {
+            if (instance == null)
+                return;
+            section.set(path + ".x", instance.x);
+            section.set(path + ".y", instance.y);
+        }
+    }
+
+    public static class TestConfig implements Configuration {
+
+        @Field public int count = 1;
+        @Field public long big = 2;
+        @Field public long amount = 3;
+        @Field public int negative = 4;
+        @Field public long huge = 5;
+        @Field public boolean flag;
+        @Field public boolean other = true;
+        @Field public double ratio = 0.5;
+        @Field public double rate = 0.5;
+        @Field public String name = "name";
+        @Field public String label = "label";
+        @Field public Mode mode = Mode.EASY;
+        // Holds whatever the scalars resolve to, the generic type isn't checked
+        @Field public List<String> raw = new ArrayList<>();
+        @Field public Point point;
+
+        @Section("nested")
+        @Field("ratio") public double nestedRatio = 0.75;
+        @Field("mode") public Mode nestedMode = Mode.HARD;
+        @Field("point") public Point nestedPoint;
+        @Field("points") public List<Point> points = new ArrayList<>();
+        @Field("named") public Map<String, Point> named = new LinkedHashMap<>();
+    }
+}